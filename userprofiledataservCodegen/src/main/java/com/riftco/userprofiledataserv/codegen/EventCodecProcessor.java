@@ -0,0 +1,421 @@
+package com.riftco.userprofiledataserv.codegen;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes {@code GeneratedEventCodecs} for every type annotated with
+ * {@link GenerateEventCodecs}. For each event subtype it emits a serializer that writes the
+ * fields one by one through their getters, and a deserializer that reads tokens straight
+ * from the parser into locals and calls the all-args constructor. Value objects are written
+ * as their text and rebuilt with their {@code of(String)} factory, enums by name. The factory
+ * of each value object type is handed to the {@code Interner} passed to the module once,
+ * and decoded values go through whatever it returns, typically a pool of shared instances.
+ * <p>
+ * The processor relies on the event conventions of the domain: Lombok {@code @Data} and
+ * {@code @AllArgsConstructor}, or explicit getters and a constructor taking every field in
+ * declaration order. Events that do not follow them are left to Jackson's bean codecs.
+ */
+@SupportedAnnotationTypes("com.riftco.userprofiledataserv.codegen.GenerateEventCodecs")
+public class EventCodecProcessor extends AbstractProcessor {
+
+    private static final String GENERATED_CLASS = "GeneratedEventCodecs";
+    private static final String JSON_SUB_TYPES = "com.fasterxml.jackson.annotation.JsonSubTypes";
+    private static final String VALUE_OBJECT = "com.riftco.userprofiledataserv.domain.common.ValueObject";
+
+    private enum Kind { STRING, UUID, INSTANT, ENUM, VALUE_OBJECT, INT, LONG, BOOLEAN, DOUBLE, OTHER }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element annotated : roundEnv.getElementsAnnotatedWith(GenerateEventCodecs.class)) {
+            final TypeElement base = classValue(mirror(annotated, GenerateEventCodecs.class.getName()), "value");
+            if (base == null) {
+                continue;
+            }
+            final List<TypeElement> events = new ArrayList<>();
+            for (TypeElement subtype : this.subtypes(base)) {
+                if (this.followsConventions(subtype)) {
+                    events.add(subtype);
+                } else {
+                    this.processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                            "No generated codec for " + subtype + ": no getters or all-args constructor", subtype);
+                }
+            }
+            final String pkg = this.processingEnv.getElementUtils().getPackageOf(annotated).getQualifiedName().toString();
+            try (Writer writer = this.processingEnv.getFiler()
+                    .createSourceFile(pkg + "." + GENERATED_CLASS, annotated)
+                    .openWriter()) {
+                writer.write(this.source(pkg, events));
+            } catch (IOException e) {
+                this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Could not write " + GENERATED_CLASS + ": " + e.getMessage(), annotated);
+            }
+        }
+        return true;
+    }
+
+    private List<TypeElement> subtypes(TypeElement base) {
+        final List<TypeElement> subtypes = new ArrayList<>();
+        final AnnotationMirror subTypes = mirror(base, JSON_SUB_TYPES);
+        if (subTypes == null) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    base + " has no @JsonSubTypes to generate codecs for", base);
+            return subtypes;
+        }
+        for (Object type : (List<?>) value(subTypes, "value").getValue()) {
+            final TypeElement subtype = classValue((AnnotationMirror) ((AnnotationValue) type).getValue(), "value");
+            if (subtype != null) {
+                subtypes.add(subtype);
+            }
+        }
+        return subtypes;
+    }
+
+    private boolean followsConventions(TypeElement event) {
+        if (event.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+        final boolean getters = mirror(event, "lombok.Data") != null || mirror(event, "lombok.Getter") != null
+                || fields(event).stream().allMatch(field -> ElementFilter.methodsIn(event.getEnclosedElements())
+                        .stream()
+                        .anyMatch(method -> method.getSimpleName().contentEquals(getter(field))
+                                && method.getParameters().isEmpty()));
+        final boolean constructor = mirror(event, "lombok.AllArgsConstructor") != null
+                || ElementFilter.constructorsIn(event.getEnclosedElements())
+                        .stream()
+                        .anyMatch(candidate -> this.takesAll(candidate, fields(event)));
+        return getters && constructor;
+    }
+
+    private boolean takesAll(ExecutableElement constructor, List<VariableElement> fields) {
+        if (constructor.getParameters().size() != fields.size()) {
+            return false;
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            if (!this.processingEnv.getTypeUtils().isSameType(
+                    constructor.getParameters().get(i).asType(), fields.get(i).asType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String source(String pkg, List<TypeElement> events) {
+        final StringBuilder out = new StringBuilder();
+        out.append("package ").append(pkg).append(";\n\n")
+                .append("import com.fasterxml.jackson.core.JsonGenerator;\n")
+                .append("import com.fasterxml.jackson.core.JsonParser;\n")
+                .append("import com.fasterxml.jackson.core.JsonToken;\n")
+                .append("import com.fasterxml.jackson.core.type.WritableTypeId;\n")
+                .append("import com.fasterxml.jackson.databind.DeserializationContext;\n")
+                .append("import com.fasterxml.jackson.databind.SerializerProvider;\n")
+                .append("import com.fasterxml.jackson.databind.deser.std.StdDeserializer;\n")
+                .append("import com.fasterxml.jackson.databind.jsontype.TypeSerializer;\n")
+                .append("import com.fasterxml.jackson.databind.module.SimpleModule;\n")
+                .append("import com.fasterxml.jackson.databind.ser.std.StdSerializer;\n\n")
+                .append("import java.io.IOException;\n")
+                .append("import java.util.function.Function;\n\n")
+                .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                .append("public final class ").append(GENERATED_CLASS).append(" {\n\n")
+                .append("    private ").append(GENERATED_CLASS).append("() {\n    }\n\n")
+                .append("    /**\n     * Hands out the factory used to rebuild a value object type, typically one that\n")
+                .append("     * returns a shared instance for text it has seen before.\n     */\n")
+                .append("    public interface Interner {\n\n")
+                .append("        Interner NONE = new Interner() {\n")
+                .append("            @Override\n")
+                .append("            public <T> Function<String, T> interning(Class<T> type, Function<String, T> factory) {\n")
+                .append("                return factory;\n            }\n        };\n\n")
+                .append("        <T> Function<String, T> interning(Class<T> type, Function<String, T> factory);\n    }\n\n")
+                .append("    public static SimpleModule module() {\n        return module(Interner.NONE);\n    }\n\n")
+                .append("    public static SimpleModule module(Interner interner) {\n")
+                .append("        final SimpleModule module = new SimpleModule(\"").append(GENERATED_CLASS).append("\");\n");
+        for (TypeElement event : events) {
+            final String name = event.getSimpleName().toString();
+            out.append("        module.addSerializer(").append(event.getQualifiedName()).append(".class, new ")
+                    .append(name).append("Serializer());\n")
+                    .append("        module.addDeserializer(").append(event.getQualifiedName()).append(".class, new ")
+                    .append(name).append("Deserializer(interner));\n");
+        }
+        out.append("        return module;\n    }\n");
+        for (TypeElement event : events) {
+            this.serializer(out, event);
+            this.deserializer(out, event);
+        }
+        out.append(HELPERS).append("}\n");
+        return out.toString();
+    }
+
+    private void serializer(StringBuilder out, TypeElement event) {
+        final String type = event.getQualifiedName().toString();
+        final String name = event.getSimpleName() + "Serializer";
+        out.append("\n    static final class ").append(name).append(" extends StdSerializer<").append(type).append("> {\n\n")
+                .append("        ").append(name).append("() {\n            super(").append(type).append(".class);\n        }\n\n")
+                .append("        @Override\n")
+                .append("        public void serialize(").append(type)
+                .append(" value, JsonGenerator gen, SerializerProvider provider) throws IOException {\n")
+                .append("            gen.writeStartObject(value);\n")
+                .append("            writeFields(value, gen, provider);\n")
+                .append("            gen.writeEndObject();\n        }\n\n")
+                .append("        @Override\n")
+                .append("        public void serializeWithType(").append(type)
+                .append(" value, JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer) throws IOException {\n")
+                .append("            final WritableTypeId typeId = typeSer.writeTypePrefix(gen, typeSer.typeId(value, JsonToken.START_OBJECT));\n")
+                .append("            writeFields(value, gen, provider);\n")
+                .append("            typeSer.writeTypeSuffix(gen, typeId);\n        }\n\n")
+                .append("        private static void writeFields(").append(type)
+                .append(" value, JsonGenerator gen, SerializerProvider provider) throws IOException {\n");
+        for (VariableElement field : fields(event)) {
+            final String property = field.getSimpleName().toString();
+            final String get = "value." + getter(field) + "()";
+            switch (this.kind(field.asType())) {
+                case STRING, UUID, INSTANT, VALUE_OBJECT -> out.append("            writeText(gen, \"").append(property)
+                        .append("\", ").append(get).append(");\n");
+                case ENUM -> out.append("            writeText(gen, \"").append(property).append("\", ").append(get)
+                        .append(" == null ? null : ").append(get).append(".name());\n");
+                case INT, LONG, DOUBLE -> out.append("            gen.writeNumberField(\"").append(property)
+                        .append("\", ").append(get).append(");\n");
+                case BOOLEAN -> out.append("            gen.writeBooleanField(\"").append(property)
+                        .append("\", ").append(get).append(");\n");
+                case OTHER -> out.append("            provider.defaultSerializeField(\"").append(property)
+                        .append("\", ").append(get).append(", gen);\n");
+            }
+        }
+        out.append("        }\n    }\n");
+    }
+
+    private void deserializer(StringBuilder out, TypeElement event) {
+        final String type = event.getQualifiedName().toString();
+        final String name = event.getSimpleName() + "Deserializer";
+        final List<VariableElement> fields = fields(event);
+        final List<VariableElement> valueObjects = fields.stream()
+                .filter(field -> this.kind(field.asType()) == Kind.VALUE_OBJECT)
+                .toList();
+        out.append("\n    static final class ").append(name).append(" extends StdDeserializer<").append(type).append("> {\n\n");
+        for (VariableElement field : valueObjects) {
+            out.append("        private final Function<String, ").append(this.erasure(field.asType())).append("> ")
+                    .append(factory(field)).append(";\n");
+        }
+        out.append(valueObjects.isEmpty() ? "" : "\n")
+                .append("        ").append(name).append("(Interner interner) {\n            super(").append(type).append(".class);\n");
+        for (VariableElement field : valueObjects) {
+            final String fieldType = this.erasure(field.asType());
+            out.append("            this.").append(factory(field)).append(" = interner.interning(").append(fieldType)
+                    .append(".class, ").append(fieldType).append("::of);\n");
+        }
+        out.append("        }\n\n")
+                .append("        @Override\n")
+                .append("        public ").append(type)
+                .append(" deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {\n");
+        for (VariableElement field : fields) {
+            final TypeMirror fieldType = field.asType();
+            out.append("            ").append(this.erasure(fieldType)).append(' ').append(local(field)).append(" = ")
+                    .append(defaultValue(fieldType)).append(";\n");
+        }
+        out.append("            JsonToken token = p.currentToken();\n")
+                .append("            if (token == JsonToken.START_OBJECT) {\n                token = p.nextToken();\n            }\n")
+                .append("            for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {\n")
+                .append("                final String property = p.currentName();\n")
+                .append("                p.nextToken();\n")
+                .append("                switch (property) {\n");
+        for (VariableElement field : fields) {
+            final String fieldType = this.erasure(field.asType());
+            out.append("                    case \"").append(field.getSimpleName()).append("\" -> ").append(local(field))
+                    .append(" = ");
+            switch (this.kind(field.asType())) {
+                case STRING -> out.append("readText(p, Function.identity());\n");
+                case UUID -> out.append("readText(p, java.util.UUID::fromString);\n");
+                case INSTANT -> out.append("readInstant(p, ctxt);\n");
+                case ENUM -> out.append("readText(p, ").append(fieldType).append("::valueOf);\n");
+                case VALUE_OBJECT -> out.append("readValueObject(p, ctxt, ").append(fieldType).append(".class, ")
+                        .append("this.").append(factory(field)).append(");\n");
+                case INT -> out.append("p.getValueAsInt();\n");
+                case LONG -> out.append("p.getValueAsLong();\n");
+                case DOUBLE -> out.append("p.getValueAsDouble();\n");
+                case BOOLEAN -> out.append("p.getValueAsBoolean();\n");
+                case OTHER -> out.append("ctxt.readValue(p, ").append(fieldType).append(".class);\n");
+            }
+        }
+        out.append("                    default -> p.skipChildren();\n")
+                .append("                }\n            }\n")
+                .append("            return new ").append(type).append('(');
+        for (int i = 0; i < fields.size(); i++) {
+            out.append(i == 0 ? "" : ", ").append(local(fields.get(i)));
+        }
+        out.append(");\n        }\n    }\n");
+    }
+
+    private Kind kind(TypeMirror type) {
+        switch (type.getKind()) {
+            case INT, SHORT, BYTE:
+                return Kind.INT;
+            case LONG:
+                return Kind.LONG;
+            case DOUBLE, FLOAT:
+                return Kind.DOUBLE;
+            case BOOLEAN:
+                return Kind.BOOLEAN;
+            case DECLARED:
+                break;
+            default:
+                return Kind.OTHER;
+        }
+        final TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        switch (element.getQualifiedName().toString()) {
+            case "java.lang.String":
+                return Kind.STRING;
+            case "java.util.UUID":
+                return Kind.UUID;
+            case "java.time.Instant":
+                return Kind.INSTANT;
+            default:
+                break;
+        }
+        if (element.getKind() == ElementKind.ENUM) {
+            return Kind.ENUM;
+        }
+        final TypeElement valueObject = this.processingEnv.getElementUtils().getTypeElement(VALUE_OBJECT);
+        if (valueObject != null
+                && this.processingEnv.getTypeUtils().isAssignable(type, valueObject.asType())
+                && hasTextFactory(element)) {
+            return Kind.VALUE_OBJECT;
+        }
+        return Kind.OTHER;
+    }
+
+    private String erasure(TypeMirror type) {
+        return this.processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private static boolean hasTextFactory(TypeElement type) {
+        return ElementFilter.methodsIn(type.getEnclosedElements())
+                .stream()
+                .anyMatch(method -> method.getSimpleName().contentEquals("of")
+                        && method.getModifiers().contains(Modifier.STATIC)
+                        && method.getModifiers().contains(Modifier.PUBLIC)
+                        && method.getParameters().size() == 1
+                        && method.getParameters().get(0).asType().toString().equals("java.lang.String"));
+    }
+
+    private static List<VariableElement> fields(TypeElement type) {
+        return ElementFilter.fieldsIn(type.getEnclosedElements())
+                .stream()
+                .filter(field -> !field.getModifiers().contains(Modifier.STATIC)
+                        && !field.getModifiers().contains(Modifier.TRANSIENT))
+                .toList();
+    }
+
+    private static String getter(VariableElement field) {
+        final String name = field.getSimpleName().toString();
+        final String prefix = field.asType().getKind() == TypeKind.BOOLEAN ? "is" : "get";
+        return prefix + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String local(VariableElement field) {
+        final String name = field.getSimpleName().toString();
+        return "read" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String factory(VariableElement field) {
+        return field.getSimpleName() + "Factory";
+    }
+
+    private static String defaultValue(TypeMirror type) {
+        return switch (type.getKind()) {
+            case BOOLEAN -> "false";
+            case INT, SHORT, BYTE, LONG, DOUBLE, FLOAT, CHAR -> "0";
+            default -> "null";
+        };
+    }
+
+    private static AnnotationMirror mirror(Element element, String annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static AnnotationValue value(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static TypeElement classValue(AnnotationMirror mirror, String name) {
+        final AnnotationValue value = mirror == null ? null : value(mirror, name);
+        if (value == null || !(value.getValue() instanceof DeclaredType type)) {
+            return null;
+        }
+        return (TypeElement) type.asElement();
+    }
+
+    private static final String HELPERS = """
+
+                private static void writeText(JsonGenerator gen, String property, Object value) throws IOException {
+                    if (value == null) {
+                        gen.writeNullField(property);
+                    } else {
+                        gen.writeStringField(property, value.toString());
+                    }
+                }
+
+                private static <T> T readText(JsonParser p, Function<String, T> factory) throws IOException {
+                    if (p.currentToken() == JsonToken.VALUE_NULL) {
+                        return null;
+                    }
+                    final String text = p.getValueAsString();
+                    return text == null ? null : factory.apply(text);
+                }
+
+                private static java.time.Instant readInstant(JsonParser p, DeserializationContext ctxt) throws IOException {
+                    if (p.currentToken() == JsonToken.VALUE_STRING) {
+                        return java.time.Instant.parse(p.getText());
+                    }
+                    // Null, or a numeric timestamp written by an older mapper configuration
+                    return p.currentToken() == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, java.time.Instant.class);
+                }
+
+                /**
+                 * Value objects are written as their text; older events may hold them as {"value": ...},
+                 * which is left to the registered value object deserializer.
+                 */
+                private static <T> T readValueObject(JsonParser p, DeserializationContext ctxt, Class<T> type,
+                                                     Function<String, T> factory) throws IOException {
+                    if (p.currentToken() == JsonToken.START_OBJECT) {
+                        return ctxt.readValue(p, type);
+                    }
+                    return readText(p, factory);
+                }
+            """;
+}
@@ -0,0 +1,21 @@
+package com.riftco.userprofiledataserv.codegen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates {@code GeneratedEventCodecs} next to the annotated type: a Jackson module with
+ * a hand-written style serializer and deserializer for every subtype listed in the
+ * {@code @JsonSubTypes} of {@link #value()}.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateEventCodecs {
+
+    /**
+     * The polymorphic event base type carrying {@code @JsonSubTypes}.
+     */
+    Class<?> value();
+}
@@ -1,40 +1,99 @@
 package com.riftco.userprofiledataserv.adapter.broker;
 
-import com.riftco.userprofiledataserv.domain.event.DomainEvent;
+import com.riftco.userprofiledataserv.application.port.out.OutgoingEvent;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 public abstract class BaseEventToKafkaAdapter {
-    private final StreamBridge streamBridge;
+    private final BrokerSender brokerSender;
     private final String topicName;
 
-    protected BaseEventToKafkaAdapter(StreamBridge streamBridge, String topicName) {
-        this.streamBridge = streamBridge;
+    protected BaseEventToKafkaAdapter(BrokerSender brokerSender, String topicName) {
+        this.brokerSender = brokerSender;
         this.topicName = topicName;
     }
 
-    protected void send(DomainEvent event) {
-        Message<DomainEvent> message = MessageBuilder
-                .withPayload(event)
-                .setHeader(KafkaHeaders.KEY, event.uuid().toString().getBytes())
-                .build();
+    /**
+     * Sends the JSON the event store encoded for the event and waits until the binder took
+     * it. Failures are thrown to the caller, which keeps the event for another attempt.
+     */
+    protected void send(OutgoingEvent event) {
         try {
-            // Send directly to the specific topic using StreamBridge
-            boolean result = streamBridge.send(topicName, message);
-            if (result) {
-                log.info("KAFKA SUCCESS: Event {} with ID {} successfully sent to topic: {}", 
-                         event.getClass().getSimpleName(), event.uuid(), topicName);
-            } else {
-                log.warn("KAFKA WARNING: Event {} with ID {} may not have been sent to topic: {}", 
-                          event.getClass().getSimpleName(), event.uuid(), topicName);
+            sendAsync(event).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Sends the JSON the event store encoded for the event through the {@link BrokerSender},
+     * queued or right away depending on its mode. A byte[] payload passes the binder's
+     * message converters untouched, so the event is not serialized a second time.
+     */
+    protected CompletableFuture<Void> sendAsync(OutgoingEvent event) {
+        return brokerSender.send(topicName, message(event)).whenComplete((sent, failure) -> {
+            if (failure == null) {
+                log.debug("KAFKA SUCCESS: Event {} with ID {} successfully sent to topic: {}",
+                          event.getType(), event.getAggregateUUID(), topicName);
             }
-        } catch (Exception e) {
-            log.error("KAFKA ERROR: Failed to send event {} with ID {} to topic {}: {}", 
-                      event.getClass().getSimpleName(), event.uuid(), topicName, e.getMessage(), e);
+        });
+    }
+
+    /**
+     * Sends the events of one save as a group, in a single transaction if the binder is
+     * transactional, see {@link BrokerSender#sendAll}.
+     */
+    protected CompletableFuture<Void> sendAllAsync(List<OutgoingEvent> events) {
+        if (events.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
         }
+        List<Message<byte[]>> messages = new ArrayList<>(events.size());
+        for (OutgoingEvent event : events) {
+            messages.add(message(event));
+        }
+        return brokerSender.sendAll(topicName, messages).whenComplete((sent, failure) -> {
+            if (failure == null) {
+                log.debug("KAFKA SUCCESS: {} events of {} successfully sent to topic: {}",
+                          events.size(), events.get(0).getAggregateUUID(), topicName);
+            }
+        });
+    }
+
+    /**
+     * Builds the message with the event's key and the {@link EventHeaders}. Header values
+     * are written as bytes, like the key, so that consumers read them as plain strings.
+     */
+    private static Message<byte[]> message(OutgoingEvent event) {
+        MessageBuilder<byte[]> message = MessageBuilder
+                .withPayload(event.getPayload())
+                .setHeader(KafkaHeaders.KEY, event.getAggregateUUID().toString().getBytes())
+                .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON_VALUE)
+                .setHeader(EventHeaders.AGGREGATE_SEQUENCE, utf8(Long.toString(event.getSequence())))
+                .setHeader(EventHeaders.SCHEMA_VERSION, utf8(Integer.toString(event.getSchemaVersion())));
+        if (event.getType() != null) {
+            message.setHeader(EventHeaders.EVENT_TYPE, utf8(event.getType()));
+        }
+        if (event.getOccurredAt() != null) {
+            message.setHeader(EventHeaders.OCCURRED_AT, utf8(event.getOccurredAt().toString()));
+        }
+        if (event.getTenantId() != null) {
+            message.setHeader(EventHeaders.TENANT_ID, utf8(event.getTenantId()));
+        }
+        return message.build();
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
     }
 }
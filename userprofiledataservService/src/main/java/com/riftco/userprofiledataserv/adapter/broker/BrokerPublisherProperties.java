@@ -0,0 +1,66 @@
+package com.riftco.userprofiledataserv.adapter.broker;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * How events are handed to Kafka, bound from the {@code broker.publisher} section of
+ * application.yml. Shared by all event adapters.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "broker.publisher")
+public class BrokerPublisherProperties {
+
+    public enum Mode {
+        /**
+         * Each send goes to the binder on the calling thread.
+         */
+        DIRECT,
+        /**
+         * Sends are queued and handed to the binder in batches by a background thread.
+         */
+        BATCHED
+    }
+
+    public enum Overflow {
+        /**
+         * Wait up to {@code block-timeout} for room, then reject.
+         */
+        BLOCK,
+        /**
+         * Reject at once.
+         */
+        SHED
+    }
+
+    private Mode mode = Mode.DIRECT;
+
+    /**
+     * Events queued at most in batched mode, across all topics.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Events taken from the queue and sent at a time in batched mode. The events of a save
+     * are not split, so a batch may end up larger by part of a save.
+     */
+    private int maxBatchSize = 100;
+
+    /**
+     * What a send does when the queue is full.
+     */
+    private Overflow overflow = Overflow.BLOCK;
+
+    private Duration blockTimeout = Duration.ofSeconds(1);
+
+    /**
+     * How long a sent message may wait for the broker's acknowledgement before its send
+     * fails. Longer than the producer's delivery.timeout.ms, after which the producer
+     * reports the failure itself.
+     */
+    private Duration acknowledgementTimeout = Duration.ofMinutes(3);
+}
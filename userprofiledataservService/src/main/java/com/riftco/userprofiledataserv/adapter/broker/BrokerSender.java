@@ -0,0 +1,323 @@
+package com.riftco.userprofiledataserv.adapter.broker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.integration.annotation.ServiceActivator;
+import org.springframework.integration.context.IntegrationContextUtils;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands messages to the binder through {@link StreamBridge}, either on the calling thread or,
+ * in {@link BrokerPublisherProperties.Mode#BATCHED} mode, through a bounded queue drained
+ * in batches by one background thread. Messages leave the queue in the order they were
+ * queued, so the events of an aggregate keep their order.
+ * <p>
+ * The Kafka producer bindings send asynchronously, so the binder takes a message long before
+ * the broker does. A receipt completes once the broker acknowledged each of its messages:
+ * every message is handed over under a {@link #SEND_ID} header, and the binder reports it back
+ * on the {@link #ACKNOWLEDGEMENTS} channel once the broker took it, or on the error channel if
+ * it did not. A message that is not reported back within the acknowledgement timeout fails
+ * the receipt as well. In a Kafka transaction the commit stands for the acknowledgements.
+ * <p>
+ * Messages sent together through {@link #sendAll} stay together: they are queued as one
+ * entry and, if the binder is transactional (a
+ * {@code spring.cloud.stream.kafka.binder.transaction.transaction-id-prefix} is set), handed
+ * to it in one Kafka transaction, so that read-committed consumers see all of them or none.
+ * <p>
+ * The queue is a lock-free linked queue bounded by a counter that senders reserve a slot on
+ * before queueing; a group takes one slot per message. When it is full a send waits or is
+ * rejected at once, see {@link BrokerPublisherProperties.Overflow}; a rejected send
+ * completes exceptionally with a {@link RejectedExecutionException}.
+ * <p>
+ * Meters: {@code broker.publisher.queue.depth}, {@code broker.publisher.batch.size},
+ * {@code broker.publisher.send} (from the send call until the broker acknowledged the
+ * messages, or the transaction committed, tagged with the topic) and {@code broker.publisher.rejected}.
+ */
+@Slf4j
+@Component
+public class BrokerSender {
+
+    /**
+     * Header a message is acknowledged by. It is kept off the Kafka record, see
+     * {@code header-patterns} in application.yml.
+     */
+    public static final String SEND_ID = "brokerSendId";
+
+    /**
+     * Channel the binder sends each message the broker acknowledged to, see
+     * {@code record-metadata-channel} in application.yml.
+     */
+    public static final String ACKNOWLEDGEMENTS = "brokerAcknowledgements";
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final StreamBridge streamBridge;
+    private final BrokerPublisherProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactions;
+
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final DistributionSummary batchSize;
+    private final Counter rejected;
+    private final Map<String, Timer> sendTimes = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Void>> unacknowledged = new ConcurrentHashMap<>();
+    private final AtomicLong sendIds = new AtomicLong();
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    public BrokerSender(StreamBridge streamBridge, BrokerPublisherProperties properties, MeterRegistry meterRegistry,
+                        @Qualifier("brokerTransactions") ObjectProvider<TransactionTemplate> transactions) {
+        this.streamBridge = streamBridge;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.transactions = transactions.getIfAvailable();
+        this.batchSize = DistributionSummary.builder("broker.publisher.batch.size")
+                .description("Messages handed to the binder per batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("broker.publisher.rejected")
+                .description("Sends rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("broker.publisher.queue.depth", this.depth, AtomicInteger::get)
+                .description("Messages waiting to be handed to the binder")
+                .register(meterRegistry);
+
+        if (properties.getMode() == BrokerPublisherProperties.Mode.BATCHED) {
+            this.drainer = new Thread(this::drain, "broker-publisher");
+            this.drainer.setDaemon(true);
+            this.drainer.start();
+        } else {
+            this.drainer = null;
+        }
+    }
+
+    /**
+     * Sends the message to the topic. The future completes once the broker acknowledged the
+     * message, or exceptionally if it did not.
+     */
+    public CompletableFuture<Void> send(String topic, Message<byte[]> message) {
+        return this.sendAll(topic, List.of(message));
+    }
+
+    /**
+     * Sends the messages to the topic as a group, in one transaction if the binder is
+     * transactional. The future completes once the broker acknowledged all of them, or
+     * exceptionally if it did not take one.
+     */
+    public CompletableFuture<Void> sendAll(String topic, List<Message<byte[]>> messages) {
+        final Pending pending = new Pending(topic, messages, System.nanoTime());
+        if (this.drainer == null) {
+            this.deliver(pending);
+        } else if (this.reserve(messages.size())) {
+            this.queue.offer(pending);
+            LockSupport.unpark(this.drainer);
+        } else {
+            this.rejected.increment();
+            pending.receipt.completeExceptionally(new RejectedExecutionException(
+                    "Publisher queue is full (" + this.properties.getQueueCapacity() + " messages)"));
+        }
+        return pending.receipt;
+    }
+
+    /**
+     * Takes slots in the queue, waiting for them up to the block timeout if configured to.
+     * A group larger than the whole queue gets in once the queue is empty.
+     */
+    private boolean reserve(int slots) {
+        final int capacity = this.properties.getQueueCapacity();
+        final long deadline = System.nanoTime() + this.properties.getBlockTimeout().toNanos();
+        while (true) {
+            final int current = this.depth.get();
+            if (current + slots <= capacity || current == 0) {
+                if (this.depth.compareAndSet(current, current + slots)) {
+                    return true;
+                }
+            } else if (this.properties.getOverflow() == BrokerPublisherProperties.Overflow.SHED
+                    || System.nanoTime() >= deadline || !this.running) {
+                return false;
+            } else {
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            }
+        }
+    }
+
+    private void drain() {
+        final int maxBatchSize = this.properties.getMaxBatchSize();
+        final List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (this.running || !this.queue.isEmpty()) {
+            Pending next;
+            int messages = 0;
+            while (messages < maxBatchSize && (next = this.queue.poll()) != null) {
+                batch.add(next);
+                messages += next.messages.size();
+            }
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            this.depth.addAndGet(-messages);
+            this.batchSize.record(messages);
+            batch.forEach(this::deliver);
+            batch.clear();
+        }
+    }
+
+    private void deliver(Pending pending) {
+        CompletableFuture<Void> acknowledged;
+        try {
+            if (this.transactions == null) {
+                acknowledged = this.handAcknowledged(pending);
+            } else {
+                // The commit flushes the producer and fails unless the broker took every
+                // message, aborting the whole group
+                this.transactions.executeWithoutResult(
+                        status -> pending.messages.forEach(message -> this.hand(pending.topic, message)));
+                acknowledged = CompletableFuture.completedFuture(null);
+            }
+        } catch (RuntimeException e) {
+            acknowledged = CompletableFuture.failedFuture(e);
+        }
+        acknowledged.whenComplete((ignored, failure) -> {
+            if (failure == null) {
+                this.sendTimes.computeIfAbsent(pending.topic, this::sendTime)
+                        .record(System.nanoTime() - pending.queuedAt, TimeUnit.NANOSECONDS);
+                pending.receipt.complete(null);
+            } else {
+                final boolean wrapped = failure instanceof CompletionException && failure.getCause() != null;
+                pending.receipt.completeExceptionally(wrapped ? failure.getCause() : failure);
+            }
+        });
+    }
+
+    /**
+     * Hands the messages to the binder, each under a new send id. The future completes once
+     * the broker acknowledged all of them.
+     */
+    private CompletableFuture<Void> handAcknowledged(Pending pending) {
+        final long timeout = this.properties.getAcknowledgementTimeout().toMillis();
+        final CompletableFuture<?>[] acknowledgements = new CompletableFuture<?>[pending.messages.size()];
+        for (int i = 0; i < acknowledgements.length; i++) {
+            final String sendId = Long.toString(this.sendIds.incrementAndGet());
+            final CompletableFuture<Void> acknowledgement = new CompletableFuture<>();
+            this.unacknowledged.put(sendId, acknowledgement);
+            acknowledgement.orTimeout(timeout, TimeUnit.MILLISECONDS)
+                    .whenComplete((ignored, failure) -> this.unacknowledged.remove(sendId));
+            acknowledgements[i] = acknowledgement;
+            try {
+                this.hand(pending.topic, MessageBuilder.fromMessage(pending.messages.get(i))
+                        .setHeader(SEND_ID, sendId)
+                        .build());
+            } catch (RuntimeException e) {
+                this.unacknowledged.remove(sendId);
+                throw e;
+            }
+        }
+        return CompletableFuture.allOf(acknowledgements);
+    }
+
+    /**
+     * Completes the send of a message the broker acknowledged.
+     */
+    @ServiceActivator(inputChannel = ACKNOWLEDGEMENTS)
+    public void acknowledged(Message<?> sent) {
+        final CompletableFuture<Void> acknowledgement = this.acknowledgement(sent);
+        if (acknowledgement != null) {
+            acknowledgement.complete(null);
+        }
+    }
+
+    /**
+     * Fails the send of a message the binder could not get to the broker. Every error of the
+     * application passes through here; those about other messages are left alone.
+     */
+    @ServiceActivator(inputChannel = IntegrationContextUtils.ERROR_CHANNEL_BEAN_NAME)
+    public void failed(Message<?> error) {
+        if (error.getPayload() instanceof MessagingException failure && failure.getFailedMessage() != null) {
+            final CompletableFuture<Void> acknowledgement = this.acknowledgement(failure.getFailedMessage());
+            if (acknowledgement != null) {
+                acknowledgement.completeExceptionally(failure);
+            }
+        }
+    }
+
+    private CompletableFuture<Void> acknowledgement(Message<?> message) {
+        final String sendId = message.getHeaders().get(SEND_ID, String.class);
+        return sendId == null ? null : this.unacknowledged.get(sendId);
+    }
+
+    private void hand(String topic, Message<byte[]> message) {
+        if (!this.streamBridge.send(topic, message)) {
+            throw new IllegalStateException("Message was not accepted by topic " + topic);
+        }
+    }
+
+    private Timer sendTime(String topic) {
+        return Timer.builder("broker.publisher.send")
+                .description("Time from a send until the broker acknowledged its messages")
+                .tag("topic", topic)
+                .publishPercentileHistogram()
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * Sends what is queued before the application context closes.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        this.running = false;
+        if (this.drainer != null) {
+            LockSupport.unpark(this.drainer);
+            this.drainer.join(this.properties.getBlockTimeout().toMillis() + 5_000);
+        }
+        int unsent = 0;
+        Pending left;
+        while ((left = this.queue.poll()) != null) {
+            left.receipt.completeExceptionally(new RejectedExecutionException("Publisher stopped"));
+            unsent += left.messages.size();
+        }
+        if (unsent > 0) {
+            log.warn("{} queued messages were not sent before shutdown", unsent);
+        }
+    }
+
+    private static final class Pending {
+        private final String topic;
+        private final List<Message<byte[]>> messages;
+        private final long queuedAt;
+        private final CompletableFuture<Void> receipt = new CompletableFuture<>();
+
+        Pending(String topic, List<Message<byte[]>> messages, long queuedAt) {
+            this.topic = topic;
+            this.messages = messages;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
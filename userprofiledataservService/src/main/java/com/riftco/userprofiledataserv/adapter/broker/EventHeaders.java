@@ -0,0 +1,37 @@
+package com.riftco.userprofiledataserv.adapter.broker;
+
+/**
+ * Headers every published event carries besides its key, so that consumers can route,
+ * filter and deduplicate events without reading the payload. Values are UTF-8 strings.
+ */
+public final class EventHeaders {
+
+    /**
+     * Type id of the event, the {@code type} property of the payload.
+     */
+    public static final String EVENT_TYPE = "eventType";
+
+    /**
+     * Tenant of the aggregate; left out when not known.
+     */
+    public static final String TENANT_ID = "tenantId";
+
+    /**
+     * Position of the event in its aggregate's stream. Together with the key it identifies
+     * the event, so a redelivered event can be recognized.
+     */
+    public static final String AGGREGATE_SEQUENCE = "aggregateSequence";
+
+    /**
+     * Schema version of the payload.
+     */
+    public static final String SCHEMA_VERSION = "schemaVersion";
+
+    /**
+     * When the event occurred, as an ISO-8601 instant.
+     */
+    public static final String OCCURRED_AT = "occurredAt";
+
+    private EventHeaders() {
+    }
+}
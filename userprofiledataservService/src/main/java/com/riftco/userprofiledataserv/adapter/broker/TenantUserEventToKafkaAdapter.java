@@ -1,19 +1,31 @@
 package com.riftco.userprofiledataserv.adapter.broker;
 
+import com.riftco.userprofiledataserv.application.port.out.OutgoingEvent;
 import com.riftco.userprofiledataserv.application.port.out.SendTenantUserEventToBroker;
-import com.riftco.userprofiledataserv.domain.event.DomainEvent;
-import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Component
 public class TenantUserEventToKafkaAdapter extends BaseEventToKafkaAdapter implements SendTenantUserEventToBroker {
     
-    public TenantUserEventToKafkaAdapter(StreamBridge streamBridge) {
-        super(streamBridge, SourceBinding.TENANT_USERS_OUT);
+    public TenantUserEventToKafkaAdapter(BrokerSender brokerSender) {
+        super(brokerSender, SourceBinding.TENANT_USERS_OUT);
     }
 
     @Override
-    public void send(DomainEvent event) {
+    public void send(OutgoingEvent event) {
         super.send(event);
     }
+
+    @Override
+    public CompletableFuture<Void> sendAsync(OutgoingEvent event) {
+        return super.sendAsync(event);
+    }
+
+    @Override
+    public CompletableFuture<Void> sendAllAsync(List<OutgoingEvent> events) {
+        return super.sendAllAsync(events);
+    }
 }
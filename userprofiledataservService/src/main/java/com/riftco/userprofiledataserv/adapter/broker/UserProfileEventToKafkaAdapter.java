@@ -1,19 +1,31 @@
 package com.riftco.userprofiledataserv.adapter.broker;
 
+import com.riftco.userprofiledataserv.application.port.out.OutgoingEvent;
 import com.riftco.userprofiledataserv.application.port.out.SendUserProfileEventToBroker;
-import com.riftco.userprofiledataserv.domain.event.DomainEvent;
-import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Component
 public class UserProfileEventToKafkaAdapter extends BaseEventToKafkaAdapter implements SendUserProfileEventToBroker {
     
-    public UserProfileEventToKafkaAdapter(StreamBridge streamBridge) {
-        super(streamBridge, SourceBinding.USER_PROFILES_OUT);
+    public UserProfileEventToKafkaAdapter(BrokerSender brokerSender) {
+        super(brokerSender, SourceBinding.USER_PROFILES_OUT);
     }
 
     @Override
-    public void send(DomainEvent event) {
+    public void send(OutgoingEvent event) {
         super.send(event);
     }
+
+    @Override
+    public CompletableFuture<Void> sendAsync(OutgoingEvent event) {
+        return super.sendAsync(event);
+    }
+
+    @Override
+    public CompletableFuture<Void> sendAllAsync(List<OutgoingEvent> events) {
+        return super.sendAllAsync(events);
+    }
 }
@@ -0,0 +1,49 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.riftco.userprofiledataserv.domain.common.AggregateRoot;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Recently loaded or saved states of aggregates of one type, keyed by aggregate UUID and
+ * holding the version each state was built to. Repositories bring a cached state up to
+ * date by applying only the events recorded after that version, so a stale entry costs a
+ * short catch-up rather than a wrong answer.
+ * <p>
+ * Cached instances are never handed out: implementations work on copies, since callers
+ * go on to change the aggregates they load.
+ *
+ * @param <A> the aggregate type
+ */
+public interface AggregateCache<A extends AggregateRoot> {
+
+    Optional<A> get(UUID aggregateUUID);
+
+    /**
+     * Keeps a copy of the given committed state unless a newer version is already cached.
+     */
+    void put(A aggregate);
+
+    void evict(UUID aggregateUUID);
+
+    /**
+     * A cache that keeps nothing, for aggregate types with caching switched off.
+     */
+    static <A extends AggregateRoot> AggregateCache<A> disabled() {
+        return new AggregateCache<>() {
+            @Override
+            public Optional<A> get(UUID aggregateUUID) {
+                return Optional.empty();
+            }
+
+            @Override
+            public void put(A aggregate) {
+            }
+
+            @Override
+            public void evict(UUID aggregateUUID) {
+            }
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.riftco.userprofiledataserv.domain.common.AggregateRoot;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Creates the {@link AggregateCache} of each aggregate type from its {@code cache}
+ * settings in application.yml.
+ */
+@Component
+@RequiredArgsConstructor
+public class AggregateCaches {
+
+    private final EventStoreProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public <A extends AggregateRoot> AggregateCache<A> create(
+            String aggregateType, UnaryOperator<A> copier, AggregateWeigher<A> weigher) {
+        final EventStoreProperties.Cache settings = this.properties.forType(aggregateType).getCache();
+        if (!settings.isEnabled()) {
+            return AggregateCache.disabled();
+        }
+        return new CaffeineAggregateCache<>(aggregateType, settings, copier, weigher, this.meterRegistry);
+    }
+}
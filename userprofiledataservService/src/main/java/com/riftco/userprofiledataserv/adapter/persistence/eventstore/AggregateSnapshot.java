@@ -0,0 +1,55 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Serialized state of an aggregate as of {@code version}, i.e. after the event with that
+ * sequence. Only the latest snapshot of an aggregate is kept.
+ */
+@Document(collection = "aggregate_snapshots")
+@NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+@Getter
+class AggregateSnapshot {
+
+    @Id
+    private String id;
+
+    private String aggregateType;
+
+    private UUID aggregateUUID;
+
+    private long version;
+
+    private String state;
+
+    private Instant takenAt;
+
+    @PersistenceCreator
+    AggregateSnapshot(String id, String aggregateType, UUID aggregateUUID, long version, String state, Instant takenAt) {
+        this.id = id;
+        this.aggregateType = aggregateType;
+        this.aggregateUUID = aggregateUUID;
+        this.version = version;
+        this.state = state;
+        this.takenAt = takenAt;
+    }
+
+    AggregateSnapshot(String aggregateType, UUID aggregateUUID, long version, String state) {
+        this(idOf(aggregateType, aggregateUUID), aggregateType, aggregateUUID, version, state, Instant.now());
+    }
+
+    /**
+     * Users, their tenant memberships and their profiles share the same UUID, so the
+     * aggregate type is part of the key.
+     */
+    static String idOf(String aggregateType, UUID aggregateUUID) {
+        return aggregateType + ":" + aggregateUUID;
+    }
+}
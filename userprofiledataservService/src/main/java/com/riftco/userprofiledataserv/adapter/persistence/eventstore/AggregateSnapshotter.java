@@ -0,0 +1,135 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.riftco.userprofiledataserv.domain.common.AggregateRoot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Snapshot handling for one aggregate type. Repositories restore the latest snapshot,
+ * replay only the events recorded after it and report back how much they replayed;
+ * when that exceeds the type's snapshot policy a new snapshot is taken.
+ *
+ * @param <A> the aggregate type
+ */
+@Slf4j
+public class AggregateSnapshotter<A extends AggregateRoot> {
+
+    private final String aggregateType;
+    private final Class<A> aggregateClass;
+    private final SnapshotStore snapshotStore;
+    private final SnapshotSerializer snapshotSerializer;
+    private final EventStoreProperties.Snapshot policy;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter taken;
+    private final DistributionSummary eventsReplayed;
+
+    public AggregateSnapshotter(
+            String aggregateType,
+            Class<A> aggregateClass,
+            SnapshotStore snapshotStore,
+            SnapshotSerializer snapshotSerializer,
+            EventStoreProperties properties,
+            MeterRegistry meterRegistry) {
+        this.aggregateType = aggregateType;
+        this.aggregateClass = aggregateClass;
+        this.snapshotStore = snapshotStore;
+        this.snapshotSerializer = snapshotSerializer;
+        this.policy = properties.forType(aggregateType).getSnapshot();
+
+        this.hits = Counter.builder("eventstore.snapshot.loads")
+                .tag("aggregate", aggregateType).tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("eventstore.snapshot.loads")
+                .tag("aggregate", aggregateType).tag("result", "miss")
+                .register(meterRegistry);
+        this.taken = Counter.builder("eventstore.snapshot.taken")
+                .tag("aggregate", aggregateType)
+                .register(meterRegistry);
+        this.eventsReplayed = DistributionSummary.builder("eventstore.replay.events")
+                .description("Events replayed per aggregate load")
+                .tag("aggregate", aggregateType)
+                .register(meterRegistry);
+        Gauge.builder("eventstore.snapshot.hit.ratio", this, AggregateSnapshotter::hitRatio)
+                .tag("aggregate", aggregateType)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the state captured by the latest snapshot of the aggregate, if it has a
+     * readable one. The restored aggregate carries the version the snapshot was taken at.
+     */
+    public Optional<A> restore(UUID aggregateUUID) {
+        final Optional<A> restored = this.snapshotStore.findLatest(this.aggregateType, aggregateUUID)
+                .flatMap(this::read);
+        (restored.isPresent() ? this.hits : this.misses).increment();
+        return restored;
+    }
+
+    /**
+     * Restores the latest snapshots of several aggregates with a single query. Aggregates
+     * without a readable snapshot are left out of the result.
+     */
+    public Map<UUID, A> restoreAll(Collection<UUID> aggregateUUIDs) {
+        final Map<UUID, A> restored = new HashMap<>();
+        if (aggregateUUIDs.isEmpty()) {
+            return restored;
+        }
+        for (AggregateSnapshot snapshot : this.snapshotStore.findLatest(this.aggregateType, aggregateUUIDs)) {
+            this.read(snapshot).ifPresent(aggregate -> restored.put(snapshot.getAggregateUUID(), aggregate));
+        }
+        this.hits.increment(restored.size());
+        this.misses.increment(aggregateUUIDs.size() - restored.size());
+        return restored;
+    }
+
+    /**
+     * Records that a load replayed {@code eventCount} events, holding {@code bodyBytes}
+     * bytes of event bodies, and snapshots the resulting state if the policy asks for it.
+     * A failed snapshot write only costs a longer replay next time, so it is not fatal.
+     */
+    public void replayed(A aggregate, int eventCount, long bodyBytes) {
+        this.eventsReplayed.record(eventCount);
+        if (aggregate.getUUID() == null || !this.policy.isDue(eventCount, bodyBytes)) {
+            return;
+        }
+        try {
+            this.snapshotStore.save(new AggregateSnapshot(
+                    this.aggregateType,
+                    aggregate.getUUID(),
+                    aggregate.getVersion(),
+                    this.snapshotSerializer.serialize(aggregate)));
+            this.taken.increment();
+        } catch (DataAccessException e) {
+            log.warn("Could not snapshot {} {} at version {}: {}",
+                    this.aggregateType, aggregate.getUUID(), aggregate.getVersion(), e.getMessage());
+        }
+    }
+
+    private Optional<A> read(AggregateSnapshot snapshot) {
+        try {
+            return Optional.of(this.snapshotSerializer.deserialize(snapshot.getState(), this.aggregateClass));
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable {} snapshot of {} at version {}: {}",
+                    this.aggregateType, snapshot.getAggregateUUID(), snapshot.getVersion(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private double hitRatio() {
+        final double loads = this.hits.count() + this.misses.count();
+        return loads == 0 ? 0 : this.hits.count() / loads;
+    }
+}
@@ -0,0 +1,56 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.riftco.userprofiledataserv.domain.common.AggregateRoot;
+import com.riftco.userprofiledataserv.domain.event.DomainEvent;
+import com.riftco.userprofiledataserv.domain.vo.TenantId;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * How the event store engine handles one kind of aggregate. The aggregates share no
+ * interface for these operations, so each one is given as a function.
+ *
+ * @param <A> the aggregate type
+ */
+@Getter
+@Builder
+public class AggregateType<A extends AggregateRoot> {
+
+    /**
+     * Key of the type's settings under {@code eventstore.aggregates}, also used to tag its
+     * metrics and snapshots.
+     */
+    private final String name;
+
+    private final Class<A> aggregateClass;
+
+    /**
+     * Builds an aggregate from its whole history.
+     */
+    private final BiFunction<UUID, List<DomainEvent>, A> rebuild;
+
+    /**
+     * Applies committed events on top of a known state.
+     */
+    private final BiFunction<A, List<DomainEvent>, A> replay;
+
+    private final Function<A, List<DomainEvent>> uncommittedEvents;
+
+    private final UnaryOperator<A> markCommitted;
+
+    private final UnaryOperator<A> copy;
+
+    private final AggregateWeigher<A> weigher;
+
+    /**
+     * Tenant the aggregate belongs to, recorded with each event it saves so that the event
+     * is published with it even if the event itself does not name the tenant.
+     */
+    private final Function<A, TenantId> tenant;
+}
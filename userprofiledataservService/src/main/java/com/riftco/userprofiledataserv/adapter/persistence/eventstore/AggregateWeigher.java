@@ -0,0 +1,45 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.riftco.userprofiledataserv.domain.common.AggregateRoot;
+
+import java.util.Map;
+
+/**
+ * Estimates how much memory a cached aggregate holds on to, in bytes. Only needs to be
+ * roughly proportional: the cache evicts by the sum of these weights, so aggregates
+ * carrying long free text make room for fewer neighbours.
+ *
+ * @param <A> the aggregate type
+ */
+@FunctionalInterface
+public interface AggregateWeigher<A extends AggregateRoot> {
+
+    /**
+     * Object headers, identity, version and the fixed-size fields every aggregate carries.
+     */
+    int BASE_WEIGHT = 256;
+
+    int weigh(A aggregate);
+
+    /**
+     * The base weight plus two bytes per character of each value's text form; maps count
+     * their keys and values. Null values weigh nothing.
+     */
+    static int estimate(Object... values) {
+        long weight = BASE_WEIGHT;
+        for (Object value : values) {
+            if (value instanceof Map<?, ?> map) {
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    weight += 2L * (length(entry.getKey()) + length(entry.getValue()));
+                }
+            } else {
+                weight += 2L * length(value);
+            }
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    private static int length(Object value) {
+        return value == null ? 0 : value.toString().length();
+    }
+}
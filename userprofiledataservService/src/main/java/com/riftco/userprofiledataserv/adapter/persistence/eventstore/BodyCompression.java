@@ -0,0 +1,12 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+/**
+ * How the body of a stored event is compressed, if it is. Compressed bodies are kept in
+ * {@code data} whatever their {@link BodyFormat}, and the format says what they decompress to.
+ */
+public enum BodyCompression {
+    /**
+     * LZ4 block, with the uncompressed length recorded on the descriptor.
+     */
+    LZ4
+}
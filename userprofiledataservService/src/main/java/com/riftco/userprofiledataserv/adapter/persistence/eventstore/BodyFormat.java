@@ -0,0 +1,21 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+/**
+ * How the body of a stored event is encoded. Recorded on every descriptor, so the format
+ * of an aggregate type can change without rewriting the events it already has.
+ */
+public enum BodyFormat {
+    /**
+     * JSON text in {@code body}, the original format.
+     */
+    JSON,
+    /**
+     * Native BSON subdocument in {@code payload}.
+     */
+    BSON,
+    /**
+     * Smile binary in {@code data}. Property names and short string values repeated within
+     * an event are written once and back-referenced.
+     */
+    SMILE
+}
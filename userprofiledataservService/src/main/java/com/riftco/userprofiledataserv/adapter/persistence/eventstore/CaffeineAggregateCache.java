@@ -0,0 +1,69 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.riftco.userprofiledataserv.domain.common.AggregateRoot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+
+/**
+ * {@link AggregateCache} on a Caffeine cache bounded by the total weight of its entries,
+ * optionally expiring entries that have not been read or written for a while.
+ * <p>
+ * Hits, misses, evictions and size are published through Micrometer as the
+ * {@code cache.*} meters, tagged with {@code cache=aggregates.<type>} and
+ * {@code aggregate=<type>}.
+ *
+ * @param <A> the aggregate type
+ */
+public class CaffeineAggregateCache<A extends AggregateRoot> implements AggregateCache<A> {
+
+    private final Cache<UUID, A> cache;
+    private final UnaryOperator<A> copier;
+
+    public CaffeineAggregateCache(
+            String aggregateType,
+            EventStoreProperties.Cache settings,
+            UnaryOperator<A> copier,
+            AggregateWeigher<A> weigher,
+            MeterRegistry meterRegistry) {
+        this.copier = copier;
+
+        final Caffeine<UUID, A> builder = Caffeine.newBuilder()
+                .maximumWeight(settings.getMaxWeight())
+                .weigher((UUID uuid, A aggregate) -> weigher.weigh(aggregate))
+                .recordStats();
+        if (settings.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(settings.getExpireAfterAccess());
+        }
+        this.cache = builder.build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "aggregates." + aggregateType,
+                "aggregate", aggregateType);
+    }
+
+    @Override
+    public Optional<A> get(UUID aggregateUUID) {
+        return Optional.ofNullable(this.cache.getIfPresent(aggregateUUID)).map(this.copier);
+    }
+
+    @Override
+    public void put(A aggregate) {
+        if (aggregate.getUUID() == null) {
+            return;
+        }
+        this.cache.asMap().merge(
+                aggregate.getUUID(),
+                this.copier.apply(aggregate),
+                (cached, loaded) -> loaded.getVersion() >= cached.getVersion() ? loaded : cached);
+    }
+
+    @Override
+    public void evict(UUID aggregateUUID) {
+        this.cache.invalidate(aggregateUUID);
+    }
+}
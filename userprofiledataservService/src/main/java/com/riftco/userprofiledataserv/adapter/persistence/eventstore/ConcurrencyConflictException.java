@@ -0,0 +1,24 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Thrown when events are appended to a stream that has already moved past the version
+ * the aggregate was loaded at, i.e. another writer committed events in between.
+ * Callers can reload the aggregate and retry the command.
+ */
+@Getter
+public class ConcurrencyConflictException extends RuntimeException {
+
+    private final UUID aggregateUUID;
+    private final long expectedVersion;
+
+    public ConcurrencyConflictException(UUID aggregateUUID, long expectedVersion, Throwable cause) {
+        super("Event stream of aggregate " + aggregateUUID
+                + " is no longer at expected version " + expectedVersion, cause);
+        this.aggregateUUID = aggregateUUID;
+        this.expectedVersion = expectedVersion;
+    }
+}
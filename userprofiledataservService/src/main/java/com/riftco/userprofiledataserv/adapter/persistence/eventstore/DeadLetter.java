@@ -0,0 +1,68 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A stored event that could not be published within the retry limit of the outbox. The
+ * event itself stays in the event log; the dead letter points at it by aggregate type,
+ * UUID and sequence, and records why and how often publishing failed.
+ */
+@Document(collection = "event_dead_letters")
+@NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+@Getter
+public class DeadLetter {
+
+    @Id
+    private String id;
+
+    private String aggregateType;
+
+    private UUID aggregateUUID;
+
+    private long sequence;
+
+    private String eventType;
+
+    private int attempts;
+
+    private String lastError;
+
+    private Instant parkedAt;
+
+    private Instant nextAttemptAt;
+
+    @PersistenceCreator
+    DeadLetter(String id, String aggregateType, UUID aggregateUUID, long sequence, String eventType, int attempts,
+               String lastError, Instant parkedAt, Instant nextAttemptAt) {
+        this.id = id;
+        this.aggregateType = aggregateType;
+        this.aggregateUUID = aggregateUUID;
+        this.sequence = sequence;
+        this.eventType = eventType;
+        this.attempts = attempts;
+        this.lastError = lastError;
+        this.parkedAt = parkedAt;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    DeadLetter(String aggregateType, EventDescriptor event, int attempts, Throwable error, Instant nextAttemptAt) {
+        this(aggregateType + ":" + event.getAggregateUUID() + ":" + event.getSequence(), aggregateType,
+                event.getAggregateUUID(), event.getSequence(), event.getType(), attempts, String.valueOf(error),
+                Instant.now(), nextAttemptAt);
+    }
+
+    /**
+     * Returns a copy recording one more failed redelivery.
+     */
+    DeadLetter failedAgain(Throwable error, Instant nextAttemptAt) {
+        return new DeadLetter(this.id, this.aggregateType, this.aggregateUUID, this.sequence, this.eventType,
+                this.attempts + 1, String.valueOf(error), this.parkedAt, nextAttemptAt);
+    }
+}
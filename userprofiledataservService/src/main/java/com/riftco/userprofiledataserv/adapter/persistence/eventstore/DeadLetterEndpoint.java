@@ -0,0 +1,42 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code deadletters} JMX endpoint: how many events are parked per aggregate type, and
+ * the longest parked ones with their last error. Only exposed over JMX, since it shows
+ * aggregate ids and raw error messages and the application has no web security.
+ */
+@Component
+@JmxEndpoint(id = "deadletters")
+@RequiredArgsConstructor
+public class DeadLetterEndpoint {
+
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 500;
+
+    private final DeadLetterStore deadLetters;
+    private final EventSourcedRepositories repositories;
+
+    /**
+     * @param limit how many of the parked events to list, 1 to 500; 100 if not given
+     */
+    @ReadOperation
+    public Map<String, Object> deadLetters(@Nullable Integer limit) {
+        final Map<String, Long> parked = new LinkedHashMap<>();
+        this.repositories.getOutboxes().forEach(outbox -> parked.put(
+                outbox.getAggregateType(), this.deadLetters.countByAggregateType(outbox.getAggregateType())));
+        final int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        final List<DeadLetter> oldest = this.deadLetters.findAllByOrderByParkedAtAsc(PageRequest.of(0, size));
+        return Map.of("parked", parked, "deadLetters", oldest);
+    }
+}
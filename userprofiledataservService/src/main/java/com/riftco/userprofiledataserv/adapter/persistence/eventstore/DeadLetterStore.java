@@ -0,0 +1,21 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface DeadLetterStore extends MongoRepository<DeadLetter, String> {
+
+    /**
+     * Dead letters whose next redelivery is due, longest parked first.
+     */
+    List<DeadLetter> findByNextAttemptAtLessThanEqualOrderByParkedAtAsc(Instant now, Pageable page);
+
+    List<DeadLetter> findAllByOrderByParkedAtAsc(Pageable page);
+
+    long countByAggregateType(String aggregateType);
+}
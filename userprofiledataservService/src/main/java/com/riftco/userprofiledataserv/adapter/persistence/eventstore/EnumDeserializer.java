@@ -1,9 +1,9 @@
-package com.riftco.userprofiledataserv.adapter.persistence.users.eventstore;
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
 
 import java.io.IOException;
 
@@ -23,13 +23,14 @@ public class EnumDeserializer<T extends Enum<T>> extends JsonDeserializer<T> {
 
     @Override
     public T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
-        JsonNode node = p.getCodec().readTree(p);
-        
-        if (node.isNull()) {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
             return null;
         }
         
-        String enumValue = node.asText();
+        String enumValue = p.getValueAsString();
+        if (enumValue == null) {
+            throw new IOException("Cannot deserialize " + enumClass.getName() + " from " + p.currentToken());
+        }
         try {
             return Enum.valueOf(enumClass, enumValue);
         } catch (IllegalArgumentException e) {
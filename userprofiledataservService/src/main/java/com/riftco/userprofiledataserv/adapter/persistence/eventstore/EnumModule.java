@@ -1,4 +1,4 @@
-package com.riftco.userprofiledataserv.adapter.persistence.users.eventstore;
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
 
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.riftco.userprofiledataserv.domain.TenantType;
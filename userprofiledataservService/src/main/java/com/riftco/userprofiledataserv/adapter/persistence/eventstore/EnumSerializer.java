@@ -1,4 +1,4 @@
-package com.riftco.userprofiledataserv.adapter.persistence.users.eventstore;
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
@@ -0,0 +1,95 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compresses the bodies of one aggregate type's events from a size threshold on, and
+ * restores them before they are decoded. Bodies that do not get smaller are stored as they
+ * are. Records the compression ratio and the time spent decompressing.
+ */
+class EventCompressor {
+
+    private static final DocumentCodec DOCUMENT_CODEC = new DocumentCodec();
+
+    private final int threshold;
+    private final LZ4Compressor compressor;
+    private final LZ4SafeDecompressor decompressor;
+    private final DistributionSummary ratio;
+    private final Timer decodeTime;
+
+    EventCompressor(String aggregateType, int threshold, MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        final LZ4Factory lz4 = LZ4Factory.fastestInstance();
+        this.compressor = lz4.fastCompressor();
+        this.decompressor = lz4.safeDecompressor();
+        this.ratio = DistributionSummary.builder("eventstore.compression.ratio")
+                .description("Uncompressed to compressed size of compressed event bodies")
+                .tag("aggregate", aggregateType)
+                .register(meterRegistry);
+        this.decodeTime = Timer.builder("eventstore.compression.decode")
+                .description("Time spent decompressing event bodies")
+                .tag("aggregate", aggregateType)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the descriptor with its body compressed, or unchanged when compression is off,
+     * the body is below the threshold or does not compress.
+     */
+    EventDescriptor compress(EventDescriptor event) {
+        // size() is a cheap estimate; it saves encoding BSON payloads that are clearly small
+        if (this.threshold <= 0 || event.getCompression() != null || event.size() < this.threshold) {
+            return event;
+        }
+        final byte[] raw = switch (event.getFormat()) {
+            case JSON -> event.getBody().getBytes(StandardCharsets.UTF_8);
+            case BSON -> bytes(new RawBsonDocument(event.getPayload(), DOCUMENT_CODEC).getByteBuffer().asNIO());
+            case SMILE -> event.getData();
+        };
+        if (raw.length < this.threshold) {
+            return event;
+        }
+        final byte[] compressed = this.compressor.compress(raw);
+        if (compressed.length >= raw.length) {
+            return event;
+        }
+        this.ratio.record((double) raw.length / compressed.length);
+        return event.compressed(BodyCompression.LZ4, compressed, raw.length);
+    }
+
+    /**
+     * Returns the descriptor with its body as it was before compression.
+     */
+    EventDescriptor decompress(EventDescriptor event) {
+        if (event.getCompression() == null) {
+            return event;
+        }
+        final long started = System.nanoTime();
+        final byte[] raw = this.decompressor.decompress(event.getData(), event.getRawSize());
+        final EventDescriptor restored = switch (event.getFormat()) {
+            case JSON -> event.decompressed(new String(raw, StandardCharsets.UTF_8), null, null);
+            case BSON -> event.decompressed(null, new RawBsonDocument(raw).decode(DOCUMENT_CODEC), null);
+            case SMILE -> event.decompressed(null, null, raw);
+        };
+        this.decodeTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return restored;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
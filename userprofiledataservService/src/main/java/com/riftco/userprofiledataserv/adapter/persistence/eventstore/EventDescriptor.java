@@ -0,0 +1,248 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.PersistenceCreator;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A single persisted event: its serialized form plus the aggregate UUID and position in
+ * that aggregate's stream. Descriptors are written to the collection of their aggregate
+ * type, see {@link MongoEventStorage}.
+ * <p>
+ * Where the event itself is kept depends on its {@link BodyFormat}: JSON text in
+ * {@code body}, a native subdocument in {@code payload} or Smile bytes in {@code data}.
+ * A body compressed by {@link EventCompressor} is kept in {@code data} in any format.
+ * <p>
+ * The descriptor doubles as the outbox entry of its event: {@code pendingSince} is written
+ * with the event and cleared once {@link EventOutbox} has published it. A body not stored as
+ * JSON travels with the JSON it is published as until then, in {@code outgoing}.
+ */
+@NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+@Getter
+public class EventDescriptor {
+
+    @Id
+    @Getter(lombok.AccessLevel.NONE)
+    private String id;
+
+    private UUID aggregateUUID;
+
+    private long sequence;
+
+    private String body;
+
+    private Document payload;
+
+    private byte[] data;
+
+    private BodyFormat format;
+
+    /**
+     * Schema version of the body, see {@link EventUpcaster}; unset until the type's schema
+     * first changes.
+     */
+    private Integer schemaVersion;
+
+    private BodyCompression compression;
+
+    /**
+     * Length of the body before compression; only set on compressed bodies.
+     */
+    private Integer rawSize;
+
+    private Instant occurredAt = Instant.now();
+
+    private String type;
+
+    /**
+     * Tenant of the aggregate that saved the event; unset on events stored before it was
+     * recorded.
+     */
+    private String tenantId;
+
+    /**
+     * When the event was appended, while it waits to be published; unset once published,
+     * and on events stored before the outbox.
+     */
+    private Instant pendingSince;
+
+    /**
+     * Failed attempts to publish the event so far, and when the outbox tries again; unset
+     * until an attempt failed.
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private Integer publishAttempts;
+
+    private Instant nextAttemptAt;
+
+    /**
+     * Sequence of the last event appended in the same save, so that the outbox can publish
+     * the events of a save together; unset on events stored before.
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private Long saveEnd;
+
+    /**
+     * The event as published, JSON in the schema version it was saved in, encoded with the
+     * body when that is not JSON; unset once published, and on JSON bodies, which are
+     * published as they are.
+     */
+    private byte[] outgoing;
+
+    @PersistenceCreator
+    public EventDescriptor(UUID aggregateUUID, long sequence, BodyFormat format, String body, Document payload,
+                           byte[] data, Integer schemaVersion, BodyCompression compression, Integer rawSize,
+                           Instant occurredAt, String type, String tenantId) {
+        this.aggregateUUID = aggregateUUID;
+        this.sequence = sequence;
+        this.format = format;
+        this.body = body;
+        this.payload = payload;
+        this.data = data;
+        this.schemaVersion = schemaVersion;
+        this.compression = compression;
+        this.rawSize = rawSize;
+        this.occurredAt = occurredAt;
+        this.type = type;
+        this.tenantId = tenantId;
+    }
+
+    public EventDescriptor(String body, Instant occurredAt, String type) {
+        this(null, 0L, BodyFormat.JSON, body, null, null, null, null, null, occurredAt, type, null);
+    }
+
+    public EventDescriptor(Document payload, Instant occurredAt, String type) {
+        this(null, 0L, BodyFormat.BSON, null, payload, null, null, null, null, occurredAt, type, null);
+    }
+
+    public EventDescriptor(byte[] data, Instant occurredAt, String type) {
+        this(null, 0L, BodyFormat.SMILE, null, null, data, null, null, null, occurredAt, type, null);
+    }
+
+    /**
+     * Events stored before the format was recorded are JSON, or BSON if they have a payload.
+     */
+    public BodyFormat getFormat() {
+        if (this.format != null) {
+            return this.format;
+        }
+        return this.payload != null ? BodyFormat.BSON : BodyFormat.JSON;
+    }
+
+    /**
+     * Events stored before schema versions were recorded are version 1.
+     */
+    public int getSchemaVersion() {
+        return this.schemaVersion == null ? 1 : this.schemaVersion;
+    }
+
+    public int getPublishAttempts() {
+        return this.publishAttempts == null ? 0 : this.publishAttempts;
+    }
+
+    /**
+     * Events stored before saves were recorded count as saved on their own.
+     */
+    public long getSaveEnd() {
+        return this.saveEnd == null ? this.sequence : this.saveEnd;
+    }
+
+    /**
+     * Returns a copy of this descriptor positioned in the stream of the given aggregate.
+     */
+    public EventDescriptor at(UUID aggregateUUID, long sequence) {
+        return this.carryOutgoing(new EventDescriptor(aggregateUUID, sequence, this.format, this.body, this.payload,
+                this.data, this.schemaVersion, this.compression, this.rawSize, this.occurredAt, this.type,
+                this.tenantId));
+    }
+
+    /**
+     * Returns a copy of this descriptor saved by an aggregate of the given tenant.
+     */
+    EventDescriptor ofTenant(String tenantId) {
+        return this.carryOutgoing(new EventDescriptor(this.aggregateUUID, this.sequence, this.format, this.body,
+                this.payload, this.data, this.schemaVersion, this.compression, this.rawSize, this.occurredAt,
+                this.type, tenantId));
+    }
+
+    /**
+     * Returns a copy of this descriptor waiting to be published since the given time, saved
+     * together with the events up to {@code saveEnd}.
+     */
+    EventDescriptor pending(Instant since, long saveEnd) {
+        final EventDescriptor pending = this.at(this.aggregateUUID, this.sequence);
+        pending.pendingSince = since;
+        pending.saveEnd = saveEnd;
+        return pending;
+    }
+
+    EventDescriptor versioned(int schemaVersion) {
+        return this.carryOutgoing(new EventDescriptor(this.aggregateUUID, this.sequence, this.format, this.body,
+                this.payload, this.data, schemaVersion, this.compression, this.rawSize, this.occurredAt, this.type,
+                this.tenantId));
+    }
+
+    EventDescriptor compressed(BodyCompression compression, byte[] data, int rawSize) {
+        return this.carryOutgoing(new EventDescriptor(this.aggregateUUID, this.sequence, this.getFormat(), null,
+                null, data, this.schemaVersion, compression, rawSize, this.occurredAt, this.type, this.tenantId));
+    }
+
+    EventDescriptor decompressed(String body, Document payload, byte[] data) {
+        return this.carryOutgoing(new EventDescriptor(this.aggregateUUID, this.sequence, this.getFormat(), body,
+                payload, data, this.schemaVersion, null, null, this.occurredAt, this.type, this.tenantId));
+    }
+
+    /**
+     * Returns a copy of this descriptor carrying the JSON the event is published as.
+     */
+    EventDescriptor withOutgoing(byte[] outgoing) {
+        final EventDescriptor copy = this.at(this.aggregateUUID, this.sequence);
+        copy.outgoing = outgoing;
+        return copy;
+    }
+
+    private EventDescriptor carryOutgoing(EventDescriptor copy) {
+        copy.outgoing = this.outgoing;
+        return copy;
+    }
+
+    /**
+     * Rough size of the event in bytes. For BSON payloads this counts the characters of
+     * its keys and values; compressed bodies count as their uncompressed length.
+     */
+    public long size() {
+        if (this.compression != null) {
+            return this.rawSize == null ? 0 : this.rawSize;
+        }
+        return switch (this.getFormat()) {
+            case JSON -> this.body == null ? 0 : this.body.length();
+            case BSON -> sizeOf(this.payload);
+            case SMILE -> this.data == null ? 0 : this.data.length;
+        };
+    }
+
+    private static long sizeOf(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            long size = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += entry.getKey().toString().length() + sizeOf(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> values) {
+            long size = 0;
+            for (Object element : values) {
+                size += sizeOf(element);
+            }
+            return size;
+        }
+        return value == null ? 0 : value.toString().length();
+    }
+}
@@ -0,0 +1,314 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.riftco.userprofiledataserv.application.port.out.OutgoingEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The stored but not yet published events of one aggregate type. Events enter the outbox
+ * in the insert that appends them, see {@link EventStorage#append}, and {@link EventOutboxRelay}
+ * drains it to the broker in the background, so saving an aggregate waits for the event
+ * store only.
+ * <p>
+ * Events are published in stream order per aggregate, going by their sequences rather than
+ * by the append times of possibly skewed clocks, and the events appended by one save are
+ * handed to the publisher together, so that a transactional broker makes them visible at
+ * once. A batch goes out in rounds: each round hands the publisher the next save of every
+ * aggregate in the batch before awaiting any receipt, so a batching publisher sends the
+ * aggregates together, and an aggregate's next save is only sent once the broker took the
+ * one before. Once a save cannot be published, the later events of its aggregate wait with
+ * it. Events are published as stored, without decoding them, see
+ * {@link EventSerializer#toOutgoing}. Delivery is at least once.
+ * <p>
+ * Only the instance holding the {@link OutboxLeases lease} on the outbox relays it. The
+ * lease is renewed before a pass and again before its outcome is recorded; an instance that
+ * lost it in between records nothing and leaves the events to the new holder, which
+ * publishes them again.
+ * <p>
+ * A failed save is retried after a jittered, exponentially growing delay. Once it failed
+ * {@code eventstore.outbox.retry.max-attempts} times its events are parked in the
+ * {@link DeadLetterStore} and the rest of its aggregate's stream goes ahead;
+ * {@link EventRedelivery} keeps trying the dead letters one by one, out of stream order.
+ * <p>
+ * {@code eventstore.outbox.lag} is the age of the oldest event due as of the last pass,
+ * {@code eventstore.outbox.published} counts the events handed to the broker, and
+ * {@code eventstore.outbox.failures} the failed attempts, tagged {@code outcome=retry},
+ * {@code parked} or {@code redelivery}.
+ */
+@Slf4j
+class EventOutbox {
+
+    private final String aggregateType;
+    private final EventStorage storage;
+    private final EventPublisher publisher;
+    private final EventSerializer eventSerializer;
+    private final EventCompressor compressor;
+    private final DeadLetterStore deadLetters;
+    private final OutboxLeases leases;
+    private final RetryBackoff backoff;
+    private final int maxAttempts;
+    private final Counter published;
+    private final Counter retried;
+    private final Counter parked;
+    private final Counter redeliveryFailed;
+
+    private volatile Instant oldestPending;
+
+    EventOutbox(
+            String aggregateType,
+            EventStorage storage,
+            EventPublisher publisher,
+            EventSerializer eventSerializer,
+            EventCompressor compressor,
+            DeadLetterStore deadLetters,
+            OutboxLeases leases,
+            EventStoreProperties.Retry retry,
+            MeterRegistry meterRegistry) {
+        this.aggregateType = aggregateType;
+        this.storage = storage;
+        this.publisher = publisher;
+        this.eventSerializer = eventSerializer;
+        this.compressor = compressor;
+        this.deadLetters = deadLetters;
+        this.leases = leases;
+        this.backoff = new RetryBackoff(retry.getInitialBackoff(), retry.getMaxBackoff());
+        this.maxAttempts = retry.getMaxAttempts();
+        this.published = Counter.builder("eventstore.outbox.published")
+                .description("Events published from the outbox")
+                .tag("aggregate", aggregateType)
+                .register(meterRegistry);
+        this.retried = failures(aggregateType, "retry", meterRegistry);
+        this.parked = failures(aggregateType, "parked", meterRegistry);
+        this.redeliveryFailed = failures(aggregateType, "redelivery", meterRegistry);
+        TimeGauge.builder("eventstore.outbox.lag", this, TimeUnit.MILLISECONDS, EventOutbox::lagMillis)
+                .description("Age of the oldest event due to be published")
+                .tag("aggregate", aggregateType)
+                .register(meterRegistry);
+    }
+
+    private static Counter failures(String aggregateType, String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("eventstore.outbox.failures")
+                .description("Failed attempts to publish an event")
+                .tag("aggregate", aggregateType)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    String getAggregateType() {
+        return this.aggregateType;
+    }
+
+    /**
+     * Takes or renews the lease on this outbox.
+     *
+     * @return whether this instance may relay the outbox and redeliver its dead letters
+     */
+    boolean leased() {
+        return this.leases.hold(this.aggregateType);
+    }
+
+    /**
+     * Publishes the waiting events of the aggregates of the {@code batchSize} oldest appends,
+     * see {@link EventStorage#loadPending}, a save at a time per aggregate, and records which
+     * were published, retried or parked. Does nothing unless this instance
+     * holds the lease on the outbox.
+     *
+     * @return whether the batch was full, so that more events may be waiting
+     */
+    boolean relay(int batchSize) {
+        if (!this.leased()) {
+            return false;
+        }
+        final Instant now = Instant.now();
+        final List<EventDescriptor> pending = this.storage.loadPending(batchSize, now);
+        this.oldestPending = pending
+                .stream()
+                .map(EventDescriptor::getPendingSince)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+        // The storage may add earlier events of the batch's aggregates beyond the batch size
+        final boolean full = pending.size() >= batchSize;
+
+        final Map<UUID, Deque<List<EventDescriptor>>> waiting = new LinkedHashMap<>();
+        for (List<EventDescriptor> save : saves(pending, full)) {
+            waiting.computeIfAbsent(save.get(0).getAggregateUUID(), aggregateUUID -> new ArrayDeque<>()).add(save);
+        }
+
+        // Each aggregate's saves go out from its first waiting event on, so the published
+        // events of an aggregate are the range between these two
+        final Map<UUID, Long> publishedAfter = new LinkedHashMap<>();
+        final Map<UUID, Long> publishedUpTo = new LinkedHashMap<>();
+        final List<Failure> failures = new ArrayList<>();
+        int count = 0;
+        while (!waiting.isEmpty()) {
+            // The next save of every aggregate is handed over before any receipt is awaited
+            final List<List<EventDescriptor>> round = new ArrayList<>(waiting.size());
+            final List<CompletableFuture<Void>> receipts = new ArrayList<>(waiting.size());
+            for (Deque<List<EventDescriptor>> saves : waiting.values()) {
+                final List<EventDescriptor> save = saves.poll();
+                round.add(save);
+                receipts.add(this.send(save));
+            }
+            waiting.values().removeIf(Deque::isEmpty);
+            for (int i = 0; i < round.size(); i++) {
+                final List<EventDescriptor> save = round.get(i);
+                final UUID aggregateUUID = save.get(0).getAggregateUUID();
+                try {
+                    receipts.get(i).join();
+                    publishedAfter.putIfAbsent(aggregateUUID, save.get(0).getSequence() - 1);
+                    publishedUpTo.put(aggregateUUID, save.get(save.size() - 1).getSequence());
+                    count += save.size();
+                } catch (CompletionException e) {
+                    failures.add(new Failure(save, e.getCause()));
+                    waiting.remove(aggregateUUID);
+                }
+            }
+        }
+
+        if (!this.leased()) {
+            log.warn("Lost the lease on the {} outbox during a pass, leaving {} event(s) to its new holder",
+                    this.aggregateType, pending.size());
+            return false;
+        }
+        // A failed save holds back its aggregate until the next pass, unless it was parked
+        for (Failure failure : failures) {
+            if (this.retryOrPark(failure.save, failure.cause)) {
+                final UUID aggregateUUID = failure.save.get(0).getAggregateUUID();
+                publishedAfter.putIfAbsent(aggregateUUID, failure.save.get(0).getSequence() - 1);
+                publishedUpTo.put(aggregateUUID, failure.save.get(failure.save.size() - 1).getSequence());
+            }
+        }
+        publishedUpTo.forEach((aggregateUUID, sequence) ->
+                this.storage.markPublished(aggregateUUID, publishedAfter.get(aggregateUUID), sequence));
+        this.published.increment(count);
+        return full;
+    }
+
+    /**
+     * Splits a batch, read aggregate by aggregate in stream order, into saves. A full batch
+     * may end partway through the last save read of one aggregate; that save is left for the
+     * next batch, unless it is all the batch holds.
+     */
+    private static List<List<EventDescriptor>> saves(List<EventDescriptor> pending, boolean full) {
+        final List<List<EventDescriptor>> saves = new ArrayList<>();
+        List<EventDescriptor> save = null;
+        for (EventDescriptor descriptor : pending) {
+            if (save == null
+                    || !descriptor.getAggregateUUID().equals(save.get(0).getAggregateUUID())
+                    || descriptor.getSaveEnd() != save.get(0).getSaveEnd()) {
+                save = new ArrayList<>();
+                saves.add(save);
+            }
+            save.add(descriptor);
+        }
+        if (full && saves.size() > 1) {
+            saves.removeIf(cut -> cut.get(cut.size() - 1).getSequence() < cut.get(0).getSaveEnd());
+        }
+        return saves;
+    }
+
+    private CompletableFuture<Void> send(List<EventDescriptor> save) {
+        try {
+            final List<OutgoingEvent> events = new ArrayList<>(save.size());
+            for (EventDescriptor descriptor : save) {
+                events.add(this.outgoing(descriptor));
+            }
+            return this.publisher.publish(events);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Only bodies published as stored need decompressing; the others carry their JSON.
+     */
+    private OutgoingEvent outgoing(EventDescriptor stored) {
+        return this.eventSerializer.toOutgoing(
+                stored.getOutgoing() == null ? this.compressor.decompress(stored) : stored);
+    }
+
+    /**
+     * Schedules the next attempt for the save, recorded on its first event, or parks its
+     * events once it used up its attempts.
+     *
+     * @return whether the save was parked
+     */
+    private boolean retryOrPark(List<EventDescriptor> save, Throwable cause) {
+        final EventDescriptor first = save.get(0);
+        final int attempts = first.getPublishAttempts() + 1;
+        final Instant nextAttemptAt = Instant.now().plus(this.backoff.delay(attempts));
+        if (attempts < this.maxAttempts) {
+            log.warn("Could not publish {} {} event(s) from {} of {} (attempt {}), retrying at {}: {}",
+                    save.size(), this.aggregateType, first.getSequence(), first.getAggregateUUID(), attempts,
+                    nextAttemptAt, cause.getMessage());
+            this.storage.retryLater(first.getAggregateUUID(), first.getSequence(), attempts, nextAttemptAt);
+            this.retried.increment(save.size());
+            return false;
+        }
+        log.error("Could not publish {} {} event(s) from {} of {} after {} attempts, parking them as dead letters: {}",
+                save.size(), this.aggregateType, first.getSequence(), first.getAggregateUUID(), attempts,
+                cause.getMessage());
+        for (EventDescriptor descriptor : save) {
+            this.deadLetters.save(new DeadLetter(this.aggregateType, descriptor, attempts, cause, nextAttemptAt));
+        }
+        this.parked.increment(save.size());
+        return true;
+    }
+
+    /**
+     * Publishes a parked event again and waits for the broker.
+     *
+     * @return the dead letter to keep, with the failure recorded, or empty once it was
+     * published or its event no longer exists
+     */
+    Optional<DeadLetter> redeliver(DeadLetter deadLetter) {
+        final Optional<EventDescriptor> stored = this.storage.loadEvent(deadLetter.getAggregateUUID(), deadLetter.getSequence());
+        if (stored.isEmpty()) {
+            log.warn("Dropping dead letter {}: the event is no longer stored", deadLetter.getId());
+            return Optional.empty();
+        }
+        try {
+            this.publisher.publish(List.of(this.outgoing(stored.get()))).join();
+            this.published.increment();
+            log.info("Redelivered dead letter {} after {} attempts", deadLetter.getId(), deadLetter.getAttempts());
+            return Optional.empty();
+        } catch (RuntimeException e) {
+            final Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            this.redeliveryFailed.increment();
+            return Optional.of(deadLetter.failedAgain(
+                    cause, Instant.now().plus(this.backoff.delay(deadLetter.getAttempts() + 1))));
+        }
+    }
+
+    private static class Failure {
+        private final List<EventDescriptor> save;
+        private final Throwable cause;
+
+        Failure(List<EventDescriptor> save, Throwable cause) {
+            this.save = save;
+            this.cause = cause;
+        }
+    }
+
+    private double lagMillis() {
+        final Instant oldest = this.oldestPending;
+        return oldest == null ? 0 : Duration.between(oldest, Instant.now()).toMillis();
+    }
+}
@@ -0,0 +1,35 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains the outbox of every aggregate type to the broker. Each run publishes batches of
+ * {@code eventstore.outbox.batch-size} events until an outbox has no full batch left, then
+ * waits {@code eventstore.outbox.poll-interval} before the next run.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventOutboxRelay {
+
+    private final EventSourcedRepositories repositories;
+    private final EventStoreProperties properties;
+
+    @Scheduled(fixedDelayString = "${eventstore.outbox.poll-interval:500ms}")
+    public void relay() {
+        final int batchSize = this.properties.getOutbox().getBatchSize();
+        for (EventOutbox outbox : this.repositories.getOutboxes()) {
+            try {
+                while (outbox.relay(batchSize)) {
+                    // A full batch went out; more events may be waiting
+                }
+            } catch (DataAccessException e) {
+                log.warn("Could not read the {} outbox: {}", outbox.getAggregateType(), e.getMessage());
+            }
+        }
+    }
+}
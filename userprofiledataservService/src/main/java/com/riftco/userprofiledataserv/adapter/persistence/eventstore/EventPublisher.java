@@ -0,0 +1,18 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.riftco.userprofiledataserv.application.port.out.OutgoingEvent;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Hands events of one aggregate type to the broker once they are stored, together with
+ * the JSON they are published as and their place in the stream. The events of one call
+ * were saved together and are published together, atomically if the broker supports it.
+ * The returned future completes once the broker took the events, and fails if it did not
+ * take one.
+ */
+@FunctionalInterface
+public interface EventPublisher {
+    CompletableFuture<Void> publish(List<OutgoingEvent> events);
+}
@@ -0,0 +1,49 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Publishes parked events again, each once its backoff has passed, every
+ * {@code eventstore.outbox.retry.redelivery-interval}. Redelivered dead letters are removed;
+ * the others stay with their failure and next attempt recorded. Dead letters are only
+ * redelivered by the instance holding the lease on their outbox.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventRedelivery {
+
+    private final EventSourcedRepositories repositories;
+    private final DeadLetterStore deadLetters;
+    private final EventStoreProperties properties;
+
+    @Scheduled(fixedDelayString = "${eventstore.outbox.retry.redelivery-interval:1m}")
+    public void redeliver() {
+        try {
+            for (DeadLetter deadLetter : this.deadLetters.findByNextAttemptAtLessThanEqualOrderByParkedAtAsc(
+                    Instant.now(), PageRequest.of(0, this.properties.getOutbox().getBatchSize()))) {
+                final Optional<EventOutbox> outbox = this.repositories.getOutboxes()
+                        .stream()
+                        .filter(candidate -> candidate.getAggregateType().equals(deadLetter.getAggregateType()))
+                        .findFirst();
+                if (outbox.isEmpty()) {
+                    log.warn("No outbox for dead letter {}", deadLetter.getId());
+                } else if (outbox.get().leased()) {
+                    outbox.get().redeliver(deadLetter).ifPresentOrElse(
+                            this.deadLetters::save,
+                            () -> this.deadLetters.delete(deadLetter));
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not read the dead letters: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.riftco.userprofiledataserv.application.port.out.OutgoingEvent;
+import com.riftco.userprofiledataserv.codegen.GenerateEventCodecs;
+import com.riftco.userprofiledataserv.domain.common.ValueObject;
+import com.riftco.userprofiledataserv.domain.event.DomainEvent;
+import com.riftco.userprofiledataserv.domain.vo.*;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES;
+
+/**
+ * Writes and reads the bodies of the events of every aggregate type, in any
+ * {@link BodyFormat}. Value objects and domain enums are written as their plain values.
+ * <p>
+ * The events themselves go through the codecs generated at build time into
+ * {@code GeneratedEventCodecs}: field by field through getters and the all-args constructor,
+ * without Jackson's bean introspection. The value object and enum codecs below stay
+ * registered for whatever the generated codecs hand back to the mapper. Both rebuild value
+ * objects through the {@link ValueObjectInterner}, so decoded events share the pooled ones.
+ * <p>
+ * One instance serves every aggregate type. At startup it runs every event type listed on
+ * {@link DomainEvent} through each format once, so the first real reads and writes find
+ * their serializers and type id lookups already built.
+ */
+@Slf4j
+@GenerateEventCodecs(DomainEvent.class)
+@Component
+public class EventSerializer {
+    /**
+     * Event class to the type id it is stored and published under.
+     */
+    private static final Map<Class<?>, String> TYPE_NAMES = Arrays
+            .stream(DomainEvent.class.getAnnotation(JsonSubTypes.class).value())
+            .collect(Collectors.toUnmodifiableMap(JsonSubTypes.Type::value, JsonSubTypes.Type::name));
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper smileMapper;
+    private final EventUpcasters upcasters;
+    private final ValueObjectInterner interner;
+
+    @Autowired
+    EventSerializer(MeterRegistry meterRegistry, EventUpcasters upcasters, ValueObjectInterner interner) {
+        this(upcasters, interner);
+        final long started = System.nanoTime();
+        final int warmed = this.warmUp();
+        final Duration took = Duration.ofNanos(System.nanoTime() - started);
+        log.info("Warmed up event serialization for {} event types in {} ms", warmed, took.toMillis());
+
+        Timer.builder("eventstore.serializer.warmup")
+                .description("Time spent building the event serializers at startup")
+                .register(meterRegistry)
+                .record(took);
+        Gauge.builder("eventstore.serializer.event.types", () -> warmed)
+                .description("Event types warmed up at startup")
+                .register(meterRegistry);
+        Gauge.builder("eventstore.serializer.cached.serializers", this.objectMapper, EventSerializer::cachedSerializers)
+                .description("Serializers held in the mapper's serializer cache")
+                .tag("mapper", "json")
+                .register(meterRegistry);
+        Gauge.builder("eventstore.serializer.cached.serializers", this.smileMapper, EventSerializer::cachedSerializers)
+                .description("Serializers held in the mapper's serializer cache")
+                .tag("mapper", "smile")
+                .register(meterRegistry);
+    }
+
+    EventSerializer() {
+        this(EventUpcasters.none(), ValueObjectInterner.none());
+    }
+
+    private EventSerializer(EventUpcasters upcasters, ValueObjectInterner interner) {
+        this.upcasters = upcasters;
+        this.interner = interner;
+        this.objectMapper = configure(new ObjectMapper());
+        this.smileMapper = configure(new ObjectMapper(SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build()));
+    }
+
+    private ObjectMapper configure(ObjectMapper objectMapper) {
+        objectMapper.configure(FAIL_ON_UNKNOWN_PROPERTIES, false);
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        
+        // Register value object serializers and deserializers
+        SimpleModule valueObjectModule = new SimpleModule("ValueObjectModule");
+        
+        // User value objects
+        registerValueObject(valueObjectModule, Email.class);
+        registerValueObject(valueObjectModule, PhoneNumber.class);
+        registerValueObject(valueObjectModule, UserId.class);
+        
+        // Tenant value objects
+        registerValueObject(valueObjectModule, TenantId.class);
+        registerValueObject(valueObjectModule, TenantName.class);
+        
+        // Profile value objects
+        registerValueObject(valueObjectModule, DisplayName.class);
+        registerValueObject(valueObjectModule, AvatarUrl.class);
+        registerValueObject(valueObjectModule, Biography.class);
+        registerValueObject(valueObjectModule, JobTitle.class);
+        registerValueObject(valueObjectModule, Department.class);
+        registerValueObject(valueObjectModule, Location.class);
+        registerValueObject(valueObjectModule, LinkedInUrl.class);
+        registerValueObject(valueObjectModule, TwitterUrl.class);
+        registerValueObject(valueObjectModule, GitHubUrl.class);
+        
+        // Other value objects
+        registerValueObject(valueObjectModule, SubscriptionPlan.class);
+        
+        // Register value object module
+        objectMapper.registerModule(valueObjectModule);
+        
+        // Register enum module for handling domain enums
+        objectMapper.registerModule(new EnumModule());
+
+        // Registered last so the generated event codecs take precedence over bean codecs
+        objectMapper.registerModule(GeneratedEventCodecs.module(this.interner));
+        return objectMapper;
+    }
+    
+    /**
+     * Helper method to register a value object with its serializer and deserializer
+     */
+    private <T extends ValueObject> void registerValueObject(SimpleModule module, Class<T> valueObjectClass) {
+        module.addSerializer(valueObjectClass, new ValueObjectSerializer<>(valueObjectClass));
+        module.addDeserializer(valueObjectClass, new ValueObjectDeserializer<>(valueObjectClass, this.interner));
+    }
+
+    /**
+     * Reads a body holding only the type id of each event type, then writes the blank event
+     * back out, in every format. This builds the root and per-type codecs and fills the
+     * type id lookup of the polymorphic deserializer.
+     *
+     * @return the number of event types warmed up
+     */
+    int warmUp() {
+        int warmed = 0;
+        for (Map.Entry<Class<?>, String> type : TYPE_NAMES.entrySet()) {
+            try {
+                final DomainEvent blank = objectMapper.readValue("{\"type\":\"" + type.getValue() + "\"}", DomainEvent.class);
+                for (BodyFormat format : BodyFormat.values()) {
+                    this.deserialize(this.serialize(blank, format));
+                }
+                warmed++;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not warm up serialization of {}: {}", type.getKey().getSimpleName(), e.getMessage());
+            }
+        }
+        return warmed;
+    }
+
+    /**
+     * The type id events of the given class are stored under.
+     *
+     * @throws IllegalArgumentException if the class is not a registered event type
+     */
+    public String typeName(Class<? extends DomainEvent> eventType) {
+        final String name = TYPE_NAMES.get(eventType);
+        if (name == null) {
+            throw new IllegalArgumentException(eventType.getName() + " is not a registered event type");
+        }
+        return name;
+    }
+
+    private static double cachedSerializers(ObjectMapper mapper) {
+        return ((DefaultSerializerProvider) mapper.getSerializerProvider()).cachedSerializersCount();
+    }
+
+    /**
+     * What the broker adapters publish for a stored event: its JSON in the current schema
+     * version of its type, and the descriptor's fields. The body is not read. A JSON body is
+     * published as it was stored, any other body with the JSON saved next to it, see
+     * {@link #serializeNew}. Only events stored in an older schema version, or without their
+     * JSON, are decoded and written out again; their bodies must be decompressed first.
+     */
+    public OutgoingEvent toOutgoing(EventDescriptor eventDescriptor) {
+        return new OutgoingEvent(
+                eventDescriptor.getAggregateUUID(),
+                eventDescriptor.getType(),
+                this.outgoingJson(eventDescriptor),
+                eventDescriptor.getSequence(),
+                this.upcasters.currentVersion(eventDescriptor.getType()),
+                eventDescriptor.getOccurredAt(),
+                eventDescriptor.getTenantId());
+    }
+
+    private byte[] outgoingJson(EventDescriptor eventDescriptor) {
+        if (!this.upcasters.isOutdated(eventDescriptor)) {
+            if (eventDescriptor.getOutgoing() != null) {
+                return eventDescriptor.getOutgoing();
+            }
+            if (eventDescriptor.getFormat() == BodyFormat.JSON && eventDescriptor.getCompression() == null) {
+                return eventDescriptor.getBody().getBytes(StandardCharsets.UTF_8);
+            }
+        }
+        try {
+            return objectMapper.writeValueAsBytes(this.deserialize(eventDescriptor));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Encodes an event about to be appended. A body in another format than JSON carries the
+     * JSON the event is published as, encoded here once so that the outbox does not have to
+     * decode the body again.
+     */
+    public EventDescriptor serializeNew(DomainEvent event, BodyFormat format) {
+        final EventDescriptor descriptor = this.serialize(event, format);
+        if (format == BodyFormat.JSON) {
+            return descriptor;
+        }
+        try {
+            return descriptor.withOutgoing(objectMapper.writeValueAsBytes(event));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public EventDescriptor serialize(DomainEvent event, BodyFormat format) {
+        try {
+            return this.versioned(switch (format) {
+                case JSON -> new EventDescriptor(objectMapper.writeValueAsString(event), event.getOccurredAt(), event.type());
+                // Straight into a BSON document through Jackson's token buffer, no JSON text in between
+                case BSON -> new EventDescriptor(objectMapper.convertValue(event, Document.class), event.getOccurredAt(), event.type());
+                case SMILE -> new EventDescriptor(smileMapper.writeValueAsBytes(event), event.getOccurredAt(), event.type());
+            });
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Stamps the schema version once the type has one beyond the first.
+     */
+    private EventDescriptor versioned(EventDescriptor eventDescriptor) {
+        final int version = this.upcasters.currentVersion(eventDescriptor.getType());
+        return version > 1 ? eventDescriptor.versioned(version) : eventDescriptor;
+    }
+
+    public DomainEvent deserialize(EventDescriptor eventDescriptor) {
+        try {
+            if (this.upcasters.isOutdated(eventDescriptor)) {
+                return this.upcast(eventDescriptor);
+            }
+            return switch (eventDescriptor.getFormat()) {
+                case JSON -> objectMapper.readValue(eventDescriptor.getBody(), DomainEvent.class);
+                case BSON -> objectMapper.readValue(
+                        typed(eventDescriptor.getType(), eventDescriptor.getPayload().entrySet().iterator()),
+                        DomainEvent.class);
+                case SMILE -> smileMapper.readValue(eventDescriptor.getData(), DomainEvent.class);
+            };
+        } catch (IOException | IllegalArgumentException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Reads an event stored in an older schema version: parsed once into a tree, passed
+     * through the upcaster chain of its type and decoded from the tree.
+     */
+    private DomainEvent upcast(EventDescriptor eventDescriptor) throws IOException {
+        final JsonNode stored = switch (eventDescriptor.getFormat()) {
+            case JSON -> objectMapper.readTree(eventDescriptor.getBody());
+            case BSON -> objectMapper.valueToTree(eventDescriptor.getPayload());
+            case SMILE -> smileMapper.readTree(eventDescriptor.getData());
+        };
+        final ObjectNode current = this.upcasters.upcast(
+                eventDescriptor.getType(), eventDescriptor.getSchemaVersion(), (ObjectNode) stored);
+        return objectMapper.readValue(typed(eventDescriptor.getType(), current.fields()), DomainEvent.class);
+    }
+
+    /**
+     * Events with a field named {@code type} overwrite their type id in a payload map or body
+     * tree, so the id is put back in front from the descriptor. The field then follows as a second
+     * {@code type}, as it does in the JSON body.
+     */
+    private JsonParser typed(String type, Iterator<? extends Map.Entry<String, ?>> fields) throws IOException {
+        final TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+        buffer.writeStartObject();
+        if (type != null) {
+            buffer.writeStringField("type", type);
+        }
+        while (fields.hasNext()) {
+            final Map.Entry<String, ?> entry = fields.next();
+            buffer.writeFieldName(entry.getKey());
+            objectMapper.writeValue(buffer, entry.getValue());
+        }
+        buffer.writeEndObject();
+        return buffer.asParserOnFirstToken();
+    }
+}
@@ -0,0 +1,58 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.riftco.userprofiledataserv.domain.common.AggregateRoot;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Creates the {@link EventSourcedRepository} of an aggregate type, wired to the shared
+ * serializer, snapshot store, caches and metrics, together with the {@link EventOutbox}
+ * that publishes its events.
+ */
+@Component
+@RequiredArgsConstructor
+public class EventSourcedRepositories {
+
+    private final EventSerializer eventSerializer;
+    private final SnapshotStore snapshotStore;
+    private final SnapshotSerializer snapshotSerializer;
+    private final EventStoreProperties properties;
+    private final AggregateCaches aggregateCaches;
+    private final DeadLetterStore deadLetters;
+    private final OutboxLeases leases;
+    private final MeterRegistry meterRegistry;
+    private final List<EventOutbox> outboxes = new CopyOnWriteArrayList<>();
+
+    public <A extends AggregateRoot> EventSourcedRepository<A> create(
+            AggregateType<A> type, EventStorage storage, EventPublisher publisher) {
+        final EventCompressor compressor = new EventCompressor(
+                type.getName(),
+                this.properties.forType(type.getName()).getCompression().getThreshold(),
+                this.meterRegistry);
+        this.outboxes.add(new EventOutbox(
+                type.getName(), storage, publisher, this.eventSerializer, compressor, this.deadLetters,
+                this.leases, this.properties.getOutbox().getRetry(), this.meterRegistry));
+        return new EventSourcedRepository<>(
+                type,
+                storage,
+                this.eventSerializer,
+                new AggregateSnapshotter<>(
+                        type.getName(), type.getAggregateClass(),
+                        this.snapshotStore, this.snapshotSerializer, this.properties, this.meterRegistry),
+                this.aggregateCaches.create(type.getName(), type.getCopy(), type.getWeigher()),
+                compressor,
+                this.properties.getReadSegmentSize(),
+                this.properties.forType(type.getName()).getBodyFormat());
+    }
+
+    /**
+     * The outboxes of the repositories created so far.
+     */
+    List<EventOutbox> getOutboxes() {
+        return this.outboxes;
+    }
+}
@@ -0,0 +1,220 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.riftco.userprofiledataserv.domain.common.AggregateRoot;
+import com.riftco.userprofiledataserv.domain.event.DomainEvent;
+import com.riftco.userprofiledataserv.domain.vo.TenantId;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Event-sourced persistence of one aggregate type: appends uncommitted events, which the
+ * {@link EventOutbox} of the type then publishes, and rebuilds aggregates from the cache,
+ * their latest snapshot and the events recorded since. The per-type repositories delegate
+ * to one of these, created by {@link EventSourcedRepositories}.
+ *
+ * @param <A> the aggregate type
+ */
+public class EventSourcedRepository<A extends AggregateRoot> {
+
+    private final AggregateType<A> type;
+    private final EventStorage storage;
+    private final EventSerializer eventSerializer;
+    private final AggregateSnapshotter<A> snapshotter;
+    private final AggregateCache<A> cache;
+    private final EventCompressor compressor;
+    private final int readSegmentSize;
+    private final BodyFormat bodyFormat;
+
+    EventSourcedRepository(
+            AggregateType<A> type,
+            EventStorage storage,
+            EventSerializer eventSerializer,
+            AggregateSnapshotter<A> snapshotter,
+            AggregateCache<A> cache,
+            EventCompressor compressor,
+            int readSegmentSize,
+            BodyFormat bodyFormat) {
+        this.type = type;
+        this.storage = storage;
+        this.eventSerializer = eventSerializer;
+        this.snapshotter = snapshotter;
+        this.cache = cache;
+        this.compressor = compressor;
+        this.readSegmentSize = readSegmentSize;
+        this.bodyFormat = bodyFormat;
+    }
+
+    /**
+     * Appends the uncommitted events. They are published from the outbox afterwards, so
+     * this returns as soon as the event store has them.
+     */
+    public A save(A aggregate) {
+        final TenantId tenantId = this.type.getTenant().apply(aggregate);
+        this.storage.append(
+                aggregate.getUUID(),
+                aggregate.getVersion(),
+                this.type.getUncommittedEvents().apply(aggregate)
+                        .stream()
+                        .map(event -> this.eventSerializer.serializeNew(event, this.bodyFormat))
+                        .map(descriptor -> descriptor.ofTenant(tenantId == null ? null : tenantId.getValue()))
+                        .map(this.compressor::compress)
+                        .collect(Collectors.toList())
+        );
+        final A committed = this.type.getMarkCommitted().apply(aggregate);
+        this.cache.put(committed);
+        return committed;
+    }
+
+    public A getByUUID(UUID uuid) {
+        final Optional<A> known = this.cache.get(uuid)
+                .or(() -> this.snapshotter.restore(uuid));
+        final Replay replay = new Replay(uuid, known);
+        this.storage.loadSegments(uuid, known.map(A::getVersion).orElse(0), this.readSegmentSize, replay::apply);
+        return this.loaded(replay);
+    }
+
+    /**
+     * Rebuilds the aggregate as it was at {@code at}. The storage bounds the stream by time;
+     * if the cached or snapshotted state is no newer than the last event by then, replay
+     * starts from it and the events before it are skipped on their sequence, unparsed.
+     */
+    public A getByUUIDat(UUID uuid, Instant at) {
+        final List<EventDescriptor> events = this.storage.loadUntil(uuid, at, Long.MAX_VALUE);
+        final long versionAt = events.isEmpty() ? 0 : events.get(events.size() - 1).getSequence();
+        final Optional<A> known = this.cache.get(uuid)
+                .or(() -> this.snapshotter.restore(uuid))
+                .filter(state -> state.getVersion() <= versionAt);
+        if (known.isEmpty()) {
+            return this.type.getRebuild().apply(uuid, this.deserialize(events));
+        }
+        final int version = known.get().getVersion();
+        final List<DomainEvent> history = this.deserialize(events
+                .stream()
+                .filter(event -> event.getSequence() > version)
+                .collect(Collectors.toList()));
+        return history.isEmpty() ? known.get() : this.type.getReplay().apply(known.get(), history);
+    }
+
+    /**
+     * Whether the aggregate has any events, answered from the cache or by the storage
+     * without reading an event.
+     */
+    public boolean exists(UUID uuid) {
+        return this.cache.get(uuid).isPresent() || this.storage.exists(uuid);
+    }
+
+    /**
+     * Decodes only the events of one type from the stream of an aggregate, in stream order,
+     * for projections that need nothing else. The other events are never read.
+     */
+    public <E extends DomainEvent> List<E> getEvents(UUID uuid, Class<E> eventType) {
+        return this.storage.loadOfType(uuid, this.eventSerializer.typeName(eventType))
+                .stream()
+                .map(this::decode)
+                .map(eventType::cast)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Loads several aggregates at once, in the order of their first appearance in
+     * {@code uuids}. Their events are read in one query, then the aggregates are rebuilt one
+     * after the other on the calling thread: a rebuild may itself block on Mongo, for a
+     * segmented read or a snapshot, which must not tie up the common fork-join pool.
+     */
+    public List<A> getByUUIDs(Collection<UUID> uuids) {
+        final Set<UUID> requested = new LinkedHashSet<>(uuids);
+        final Map<UUID, A> known = new HashMap<>();
+        requested.forEach(uuid -> this.cache.get(uuid).ifPresent(aggregate -> known.put(uuid, aggregate)));
+        known.putAll(this.snapshotter.restoreAll(requested
+                .stream()
+                .filter(uuid -> !known.containsKey(uuid))
+                .collect(Collectors.toList())));
+        final int oldestKnownVersion = known.size() < requested.size() ? 0 : known
+                .values()
+                .stream()
+                .mapToInt(A::getVersion)
+                .min()
+                .orElse(0);
+        final Map<UUID, List<EventDescriptor>> streams = this.storage.loadAll(requested, oldestKnownVersion);
+        return requested
+                .stream()
+                .map(uuid -> {
+                    final Optional<A> state = Optional.ofNullable(known.get(uuid));
+                    final int version = state.map(A::getVersion).orElse(0);
+                    return this.rebuild(uuid, state, streams
+                            .get(uuid)
+                            .stream()
+                            .filter(event -> event.getSequence() > version)
+                            .collect(Collectors.toList()));
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Applies the given events, recorded after the known state if there is one, and
+     * keeps the result for the next load.
+     */
+    private A rebuild(UUID uuid, Optional<A> known, List<EventDescriptor> events) {
+        final Replay replay = new Replay(uuid, known);
+        replay.apply(events);
+        return this.loaded(replay);
+    }
+
+    private A loaded(Replay replay) {
+        final A aggregate = replay.result();
+        this.snapshotter.replayed(aggregate, replay.events, replay.bodyBytes);
+        this.cache.put(aggregate);
+        return aggregate;
+    }
+
+    private List<DomainEvent> deserialize(List<EventDescriptor> events) {
+        return events
+                .stream()
+                .map(this::decode)
+                .collect(Collectors.toList());
+    }
+
+    private DomainEvent decode(EventDescriptor event) {
+        return this.eventSerializer.deserialize(this.compressor.decompress(event));
+    }
+
+    /**
+     * Brings a known state, or a fresh aggregate, up to date one segment of events at a
+     * time, counting what was replayed for the snapshot policy.
+     */
+    private class Replay {
+        private final UUID uuid;
+        private A aggregate;
+        private int events;
+        private long bodyBytes;
+
+        Replay(UUID uuid, Optional<A> known) {
+            this.uuid = uuid;
+            this.aggregate = known.orElse(null);
+        }
+
+        void apply(List<EventDescriptor> segment) {
+            final List<DomainEvent> history = EventSourcedRepository.this.deserialize(segment);
+            this.aggregate = this.aggregate == null
+                    ? EventSourcedRepository.this.type.getRebuild().apply(this.uuid, history)
+                    : EventSourcedRepository.this.type.getReplay().apply(this.aggregate, history);
+            this.events += segment.size();
+            this.bodyBytes += segment.stream().mapToLong(EventDescriptor::size).sum();
+        }
+
+        A result() {
+            return this.aggregate != null
+                    ? this.aggregate
+                    : EventSourcedRepository.this.type.getRebuild().apply(this.uuid, List.of());
+        }
+    }
+}
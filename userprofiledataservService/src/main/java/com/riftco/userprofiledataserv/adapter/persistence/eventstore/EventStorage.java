@@ -0,0 +1,94 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Where the event streams of one aggregate type are kept. Streams are dense: the events
+ * of an aggregate are numbered 1..n in the order they were appended, and every load
+ * returns them in that order.
+ */
+public interface EventStorage {
+
+    /**
+     * Appends events right after {@code expectedVersion}, all or nothing: when the append
+     * fails, none of the events is stored, even if it fails on the last one. Appended events
+     * are pending publication until {@link #markPublished} is called for them.
+     *
+     * @throws ConcurrencyConflictException if the stream is no longer at {@code expectedVersion}
+     */
+    void append(UUID aggregateId, long expectedVersion, List<EventDescriptor> events);
+
+    /**
+     * Loads the events recorded after the given sequence, e.g. after a snapshot. 0 loads
+     * the whole stream.
+     */
+    List<EventDescriptor> load(UUID aggregateId, long afterSequence);
+
+    /**
+     * Reads the events recorded after the given sequence as consecutive segments of at most
+     * {@code segmentSize} events, so a long stream is never held in memory at once.
+     */
+    void loadSegments(UUID aggregateId, long afterSequence, int segmentSize, Consumer<List<EventDescriptor>> segments);
+
+    /**
+     * Loads the events that had occurred by {@code at}, up to and including
+     * {@code maxSequence}. Both bounds are applied by the storage, before any event body
+     * is parsed.
+     */
+    List<EventDescriptor> loadUntil(UUID aggregateId, Instant at, long maxSequence);
+
+    /**
+     * Loads only the events of one type, selected on the stored type and not on the body.
+     */
+    List<EventDescriptor> loadOfType(UUID aggregateId, String type);
+
+    /**
+     * Whether any event has been recorded for the aggregate, without reading one.
+     */
+    boolean exists(UUID aggregateId);
+
+    /**
+     * Loads events waiting to be published across all aggregates: the aggregates of the
+     * {@code limit} oldest appends, oldest first, each with its waiting events in stream
+     * order up to the last one among those appends. Append times only order the aggregates
+     * against each other, since they come from the clocks of different instances; within
+     * an aggregate the events start at its first waiting one, even if a skewed clock made
+     * that one look newer. Aggregates with an event whose next attempt is after
+     * {@code now} are left out altogether, so their later events keep waiting behind it.
+     */
+    List<EventDescriptor> loadPending(int limit, Instant now);
+
+    /**
+     * Records that the events of the aggregate after {@code afterSequence}, up to and
+     * including {@code sequence}, have been published. Events outside that range stay
+     * pending.
+     */
+    void markPublished(UUID aggregateId, long afterSequence, long sequence);
+
+    /**
+     * Records a failed attempt to publish the event and when to try again. The event stays
+     * pending.
+     */
+    void retryLater(UUID aggregateId, long sequence, int attempts, Instant nextAttemptAt);
+
+    /**
+     * Loads a single event of the stream, if it exists.
+     */
+    Optional<EventDescriptor> loadEvent(UUID aggregateId, long sequence);
+
+    /**
+     * Loads the streams of several aggregates in as few round trips as the storage allows.
+     * Every requested aggregate has an entry, in request order; unknown aggregates get an
+     * empty list.
+     *
+     * @param afterSequence only events after this sequence are loaded, e.g. the lowest
+     *                      version the caller already holds for all of the aggregates
+     */
+    Map<UUID, List<EventDescriptor>> loadAll(Collection<UUID> aggregateIds, long afterSequence);
+}
@@ -0,0 +1,159 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Event store settings, bound from the {@code eventstore} section of application.yml.
+ * Settings are kept per aggregate type ({@code user}, {@code tenant}, {@code tenant-user},
+ * {@code user-profile}); types without an entry use the defaults.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "eventstore")
+public class EventStoreProperties {
+
+    /**
+     * Copy streams stored in the old one-document-per-aggregate layout into the per-event
+     * collections on start-up.
+     */
+    private boolean migrateLegacyStreams = true;
+
+    /**
+     * Events read and applied at a time when an aggregate is loaded, bounding the memory a
+     * long stream takes while it is replayed.
+     */
+    private int readSegmentSize = 500;
+
+    private Interning interning = new Interning();
+
+    private Outbox outbox = new Outbox();
+
+    private Map<String, Aggregate> aggregates = new HashMap<>();
+
+    public Aggregate forType(String aggregateType) {
+        return this.aggregates.getOrDefault(aggregateType, new Aggregate());
+    }
+
+    @Getter
+    @Setter
+    public static class Interning {
+        /**
+         * Distinct values kept per pooled value object type, shared by all aggregate types.
+         * 0 turns pooling off.
+         */
+        private int maxValuesPerType = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Outbox {
+        /**
+         * Pause between two runs of the relay publishing stored events to the broker.
+         * Read by the relay's schedule.
+         */
+        private Duration pollInterval = Duration.ofMillis(500);
+
+        /**
+         * Events read from an outbox and published at a time.
+         */
+        private int batchSize = 200;
+
+        /**
+         * How long the instance relaying an outbox keeps it after its last pass, before
+         * another instance may take over, see {@link OutboxLeases}.
+         */
+        private Duration leaseDuration = Duration.ofSeconds(30);
+
+        private Retry retry = new Retry();
+    }
+
+    @Getter
+    @Setter
+    public static class Retry {
+        /**
+         * Failed attempts after which an event is parked as a dead letter, letting the
+         * later events of its aggregate through.
+         */
+        private int maxAttempts = 8;
+
+        /**
+         * Upper bound of the first retry's random delay; doubles with each further attempt.
+         */
+        private Duration initialBackoff = Duration.ofMillis(500);
+
+        private Duration maxBackoff = Duration.ofMinutes(5);
+
+        /**
+         * Pause between two runs of the job redelivering dead letters. Read by the job's
+         * schedule.
+         */
+        private Duration redeliveryInterval = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Aggregate {
+        /**
+         * Format new events of the type are written in. Stored events keep the format they
+         * were written in.
+         */
+        private BodyFormat bodyFormat = BodyFormat.BSON;
+        private Snapshot snapshot = new Snapshot();
+        private Cache cache = new Cache();
+        private Compression compression = new Compression();
+    }
+
+    @Getter
+    @Setter
+    public static class Snapshot {
+        /**
+         * Take a snapshot once a load had to replay at least this many events on top of
+         * the previous snapshot. 0 disables the event count trigger.
+         */
+        private int everyEvents = 100;
+
+        /**
+         * Take a snapshot once the bodies of the replayed events add up to at least this
+         * many bytes. 0 disables the size trigger.
+         */
+        private long maxBytes = 0;
+
+        boolean isDue(int eventsReplayed, long bytesReplayed) {
+            return (this.everyEvents > 0 && eventsReplayed >= this.everyEvents)
+                    || (this.maxBytes > 0 && bytesReplayed >= this.maxBytes);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Compression {
+        /**
+         * Compress event bodies of at least this many bytes with LZ4. 0 leaves every body
+         * uncompressed.
+         */
+        private int threshold = 0;
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+        private boolean enabled = true;
+
+        /**
+         * Upper bound on the estimated bytes held by the cached aggregates of the type.
+         */
+        private long maxWeight = 16L * 1024 * 1024;
+
+        /**
+         * Drop entries that have not been read or written for this long. Unset keeps
+         * entries until they are evicted by weight.
+         */
+        private Duration expireAfterAccess;
+    }
+}
@@ -0,0 +1,28 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Brings the stored body of one event type from one schema version to the next. Register
+ * an implementation as a bean; {@link EventUpcasters} chains them by version, and events
+ * written from then on are stamped with the version after the last step.
+ * <p>
+ * The body is the event's fields as a tree. It may hold a {@code type} key, either the type
+ * id or an event field of that name; the type id is put back from the descriptor after
+ * the chain has run.
+ */
+public interface EventUpcaster {
+
+    /**
+     * Type id of the events this upcaster applies to, e.g. {@code user.created}.
+     */
+    String eventType();
+
+    /**
+     * Schema version the upcaster reads; it produces {@code fromVersion() + 1}. Events
+     * stored before versions were recorded are version 1.
+     */
+    int fromVersion();
+
+    ObjectNode upcast(ObjectNode body);
+}
@@ -0,0 +1,103 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The upcaster chains of all event types, resolved once at startup. A chain runs from the
+ * version an event was stored in to the current version of its type in one pass over the
+ * body tree, counting each step in {@code eventstore.upcast.events}.
+ */
+@Component
+public class EventUpcasters {
+
+    private final Map<String, Chain> chains = new HashMap<>();
+
+    @Autowired
+    public EventUpcasters(ObjectProvider<EventUpcaster> upcasters, MeterRegistry meterRegistry) {
+        this(upcasters.orderedStream().toList(), meterRegistry);
+    }
+
+    EventUpcasters(List<EventUpcaster> upcasters, MeterRegistry meterRegistry) {
+        upcasters
+                .stream()
+                .collect(Collectors.groupingBy(EventUpcaster::eventType))
+                .forEach((eventType, steps) -> this.chains.put(eventType, new Chain(eventType, steps, meterRegistry)));
+    }
+
+    /**
+     * No upcasters: every event type is at version 1.
+     */
+    static EventUpcasters none() {
+        return new EventUpcasters(List.of(), new SimpleMeterRegistry());
+    }
+
+    /**
+     * The schema version new events of the type are written in.
+     */
+    public int currentVersion(String eventType) {
+        final Chain chain = this.chains.get(eventType);
+        return chain == null ? 1 : chain.steps.length + 1;
+    }
+
+    /**
+     * Whether the stored event was written in an older schema version than the current one.
+     */
+    boolean isOutdated(EventDescriptor event) {
+        return event.getSchemaVersion() < this.currentVersion(event.getType());
+    }
+
+    /**
+     * Applies every step from {@code fromVersion} to the current version of the type.
+     */
+    ObjectNode upcast(String eventType, int fromVersion, ObjectNode body) {
+        final Chain chain = this.chains.get(eventType);
+        ObjectNode upcast = body;
+        for (int version = fromVersion; chain != null && version <= chain.steps.length; version++) {
+            upcast = chain.steps[version - 1].upcast(upcast);
+            chain.upcast[version - 1].increment();
+        }
+        return upcast;
+    }
+
+    /**
+     * Steps of one event type indexed by {@code fromVersion - 1}, which must run 1..n
+     * without gaps or duplicates.
+     */
+    private static class Chain {
+        private final EventUpcaster[] steps;
+        private final Counter[] upcast;
+
+        Chain(String eventType, List<EventUpcaster> upcasters, MeterRegistry meterRegistry) {
+            final List<EventUpcaster> ordered = upcasters
+                    .stream()
+                    .sorted(Comparator.comparingInt(EventUpcaster::fromVersion))
+                    .toList();
+            this.steps = new EventUpcaster[ordered.size()];
+            this.upcast = new Counter[ordered.size()];
+            for (int i = 0; i < ordered.size(); i++) {
+                if (ordered.get(i).fromVersion() != i + 1) {
+                    throw new IllegalStateException("Upcasters of " + eventType + " must cover versions 1.."
+                            + ordered.size() + " once each, found one from version " + ordered.get(i).fromVersion());
+                }
+                this.steps[i] = ordered.get(i);
+                this.upcast[i] = Counter.builder("eventstore.upcast.events")
+                        .description("Stored events brought to a newer schema version on read")
+                        .tag("type", eventType)
+                        .tag("from", String.valueOf(i + 1))
+                        .register(meterRegistry);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Moves streams written in the old layout, one document per aggregate holding an array of
+ * events, into the per-event collections. This is the last place events are ordered by
+ * {@code occurredAt}: events of a stream are sorted by it once, with ties kept in array
+ * order, and numbered 1..n. From then on the sequence is the order.
+ * <p>
+ * The migration runs once all singletons exist and before the context finishes starting,
+ * i.e. before the web server and the broker bindings take traffic, so no command can write
+ * to a stream whose history has not been moved yet. A migrated stream is recorded with a
+ * marker, and streams with a marker are skipped, so the migration can run on every start.
+ * Events are written with upserts on (aggregateUUID, sequence), so a stream that failed
+ * half way is completed on the next start. A stream that cannot be migrated is logged and
+ * left for the next start without holding up the others. The old collections are left in
+ * place.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LegacyEventStreamMigration implements SmartInitializingSingleton {
+
+    /**
+     * One document per migrated stream, keyed by target collection and aggregate.
+     */
+    static final String MARKERS = "legacy_stream_migrations";
+
+    /**
+     * Old stream collection to per-event collection.
+     */
+    private static final Map<String, String> COLLECTIONS = Map.of(
+            "users_event", "users_event_log",
+            "tenant_events", "tenant_event_log",
+            "tenant_user_events", "tenant_user_event_log",
+            "user_profile_events", "user_profile_event_log");
+
+    private final MongoTemplate mongoTemplate;
+    private final EventStoreProperties properties;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        this.migrate();
+    }
+
+    public void migrate() {
+        if (!this.properties.isMigrateLegacyStreams()) {
+            return;
+        }
+        COLLECTIONS.forEach((legacy, target) -> {
+            try {
+                this.migrate(legacy, target);
+            } catch (DataAccessException e) {
+                log.warn("Could not migrate legacy event streams from {}: {}", legacy, e.getMessage());
+            }
+        });
+    }
+
+    private void migrate(String legacyCollection, String targetCollection) {
+        if (!this.mongoTemplate.collectionExists(legacyCollection)) {
+            return;
+        }
+        int migrated = 0;
+        int failed = 0;
+        try (Stream<LegacyStream> streams = this.mongoTemplate.stream(new Query(), LegacyStream.class, legacyCollection)) {
+            for (LegacyStream stream : (Iterable<LegacyStream>) streams::iterator) {
+                if (stream.aggregateUUID == null || stream.events == null || stream.events.isEmpty()) {
+                    continue;
+                }
+                final String marker = targetCollection + ":" + stream.aggregateUUID;
+                try {
+                    if (this.mongoTemplate.exists(Query.query(where("_id").is(marker)), MARKERS)) {
+                        continue;
+                    }
+                    this.copy(stream, targetCollection);
+                    this.mongoTemplate.insert(new Document("_id", marker).append("migratedAt", Instant.now()), MARKERS);
+                    migrated++;
+                } catch (DataAccessException e) {
+                    failed++;
+                    log.warn("Could not migrate legacy event stream {} from {}: {}",
+                            stream.aggregateUUID, legacyCollection, e.getMessage());
+                }
+            }
+        }
+        if (migrated > 0 || failed > 0) {
+            log.info("Migrated {} legacy event streams from {} to {}, {} left for the next start",
+                    migrated, legacyCollection, targetCollection, failed);
+        }
+    }
+
+    /**
+     * Upserts every event of the stream, leaving the events a previous attempt already wrote
+     * as they are.
+     */
+    private void copy(LegacyStream stream, String targetCollection) {
+        final BulkOperations bulk = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, targetCollection);
+        long sequence = 0;
+        for (LegacyEvent event : ordered(stream)) {
+            bulk.upsert(
+                    Query.query(where("aggregateUUID").is(stream.aggregateUUID).and("sequence").is(++sequence)),
+                    new Update()
+                            .setOnInsert("body", event.body)
+                            .setOnInsert("occurredAt", event.occurredAt)
+                            .setOnInsert("type", event.type));
+        }
+        bulk.execute();
+    }
+
+    private static List<LegacyEvent> ordered(LegacyStream stream) {
+        final List<LegacyEvent> ordered = new ArrayList<>(stream.events);
+        // List.sort is stable, so events sharing an instant keep their array order
+        ordered.sort(Comparator.comparing(event -> event.occurredAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return ordered;
+    }
+
+    @NoArgsConstructor
+    private static class LegacyStream {
+        private UUID aggregateUUID;
+        private List<LegacyEvent> events;
+    }
+
+    @NoArgsConstructor
+    private static class LegacyEvent {
+        private String body;
+        private Instant occurredAt;
+        private String type;
+    }
+}
@@ -0,0 +1,267 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.MongoException;
+import com.mongodb.ReadConcern;
+import com.mongodb.TransactionOptions;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.ClientSession;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * {@link EventStorage} keeping every event as its own document in a collection per
+ * aggregate type. A unique index on (aggregateUUID, sequence) keeps streams dense and turns
+ * a concurrent append into a duplicate key, and serves every load as a range scan.
+ * <p>
+ * Events are inserted pending publication, and a partial index over the pending ones
+ * serves the outbox without growing with the stored streams.
+ * <p>
+ * The events of one save are inserted in a multi-document transaction, which needs the
+ * database to run as a replica set (a single node one will do).
+ */
+public class MongoEventStorage implements EventStorage {
+
+    /**
+     * Upper bound on the aggregate UUIDs sent in one {@code $in} query.
+     */
+    static final int MAX_AGGREGATES_PER_QUERY = 1_000;
+
+    private static final Sort STREAM_ORDER = Sort.by("aggregateUUID", "sequence");
+
+    private static final Sort OUTBOX_ORDER = Sort.by("pendingSince", "aggregateUUID", "sequence");
+
+    private static final int WRITE_CONFLICT = 112;
+
+    private static final TransactionOptions APPEND_TRANSACTION = TransactionOptions.builder()
+            .readConcern(ReadConcern.MAJORITY)
+            .writeConcern(WriteConcern.MAJORITY)
+            .build();
+
+    private final MongoTemplate mongoTemplate;
+    private final String collection;
+
+    public MongoEventStorage(MongoTemplate mongoTemplate, String collection) {
+        this.mongoTemplate = mongoTemplate;
+        this.collection = collection;
+        this.mongoTemplate.indexOps(collection).ensureIndex(new Index()
+                .named("aggregate_sequence")
+                .on("aggregateUUID", Sort.Direction.ASC)
+                .on("sequence", Sort.Direction.ASC)
+                .unique());
+        this.mongoTemplate.indexOps(collection).ensureIndex(new Index()
+                .named("outbox")
+                .on("pendingSince", Sort.Direction.ASC)
+                .on("aggregateUUID", Sort.Direction.ASC)
+                .on("sequence", Sort.Direction.ASC)
+                .partial(PartialIndexFilter.of(where("pendingSince").exists(true))));
+    }
+
+    /**
+     * Assigns the sequences and writes the events, a single event with a plain insert and
+     * several in one transaction. If another writer took one of those sequences, the unique
+     * index rejects the insert and the transaction leaves none of the events behind. A writer
+     * still in its own transaction on the same sequences makes the insert fail with a write
+     * conflict instead, which is the same race and reported the same way. Each event carries
+     * its outbox entry, so an event is stored if and only if it is pending publication.
+     */
+    @Override
+    public void append(UUID aggregateId, long expectedVersion, List<EventDescriptor> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        final Instant appendedAt = Instant.now();
+        final long saveEnd = expectedVersion + events.size();
+        long sequence = expectedVersion;
+        final List<EventDescriptor> sequenced = new ArrayList<>(events.size());
+        for (EventDescriptor event : events) {
+            sequenced.add(event.at(aggregateId, ++sequence).pending(appendedAt, saveEnd));
+        }
+        try {
+            if (sequenced.size() == 1) {
+                this.mongoTemplate.insert(sequenced.get(0), this.collection);
+            } else {
+                this.insertTogether(sequenced);
+            }
+        } catch (DuplicateKeyException e) {
+            throw new ConcurrencyConflictException(aggregateId, expectedVersion, e);
+        } catch (DataAccessException e) {
+            if (isWriteConflict(e)) {
+                throw new ConcurrencyConflictException(aggregateId, expectedVersion, e);
+            }
+            throw e;
+        }
+    }
+
+    private void insertTogether(List<EventDescriptor> events) {
+        try (ClientSession session = this.mongoTemplate.getMongoDatabaseFactory()
+                .getSession(ClientSessionOptions.builder().causallyConsistent(true).build())) {
+            session.withTransaction(
+                    () -> this.mongoTemplate.withSession(session).insert(events, this.collection),
+                    APPEND_TRANSACTION);
+        }
+    }
+
+    private static boolean isWriteConflict(DataAccessException e) {
+        return e.getCause() instanceof MongoException cause
+                && (cause.getCode() == WRITE_CONFLICT
+                || cause.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL));
+    }
+
+    @Override
+    public List<EventDescriptor> load(UUID aggregateId, long afterSequence) {
+        return this.find(Query.query(where("aggregateUUID").is(aggregateId).and("sequence").gt(afterSequence)));
+    }
+
+    /**
+     * Reads through a cursor fetching one segment per batch.
+     */
+    @Override
+    public void loadSegments(UUID aggregateId, long afterSequence, int segmentSize,
+                             Consumer<List<EventDescriptor>> segments) {
+        final Query query = Query.query(where("aggregateUUID").is(aggregateId).and("sequence").gt(afterSequence))
+                .with(STREAM_ORDER)
+                .cursorBatchSize(segmentSize);
+        try (Stream<EventDescriptor> events = this.mongoTemplate.stream(query, EventDescriptor.class, this.collection)) {
+            final Iterator<EventDescriptor> iterator = events.iterator();
+            List<EventDescriptor> segment = new ArrayList<>(segmentSize);
+            while (iterator.hasNext()) {
+                segment.add(iterator.next());
+                if (segment.size() == segmentSize) {
+                    segments.accept(segment);
+                    segment = new ArrayList<>(segmentSize);
+                }
+            }
+            if (!segment.isEmpty()) {
+                segments.accept(segment);
+            }
+        }
+    }
+
+    @Override
+    public List<EventDescriptor> loadUntil(UUID aggregateId, Instant at, long maxSequence) {
+        return this.find(Query.query(where("aggregateUUID").is(aggregateId)
+                .and("sequence").lte(maxSequence)
+                .and("occurredAt").lte(at)));
+    }
+
+    @Override
+    public List<EventDescriptor> loadOfType(UUID aggregateId, String type) {
+        return this.find(Query.query(where("aggregateUUID").is(aggregateId).and("type").is(type)));
+    }
+
+    @Override
+    public boolean exists(UUID aggregateId) {
+        return this.mongoTemplate.exists(Query.query(where("aggregateUUID").is(aggregateId)), this.collection);
+    }
+
+    /**
+     * Two queries: the {@code limit} oldest appends pick the aggregates and how far into
+     * each stream to read, then the waiting events of those aggregates up to there are read
+     * in stream order, each through the unique index.
+     */
+    @Override
+    public List<EventDescriptor> loadPending(int limit, Instant now) {
+        // Few aggregates back off at a time; excluding them keeps the batch to events that can go
+        final List<UUID> backingOff = this.mongoTemplate.findDistinct(
+                Query.query(where("pendingSince").exists(true).and("nextAttemptAt").gt(now)),
+                "aggregateUUID",
+                this.collection,
+                UUID.class);
+        final Criteria pending = where("pendingSince").exists(true);
+        final List<EventDescriptor> oldest = this.mongoTemplate.find(
+                Query.query(backingOff.isEmpty() ? pending : pending.and("aggregateUUID").nin(backingOff))
+                        .with(OUTBOX_ORDER)
+                        .limit(limit),
+                EventDescriptor.class,
+                this.collection);
+        if (oldest.isEmpty()) {
+            return oldest;
+        }
+
+        final Map<UUID, Long> upTo = new LinkedHashMap<>();
+        oldest.forEach(event -> upTo.merge(event.getAggregateUUID(), event.getSequence(), Math::max));
+        final Map<UUID, List<EventDescriptor>> streams = new LinkedHashMap<>();
+        upTo.keySet().forEach(aggregateId -> streams.put(aggregateId, new ArrayList<>()));
+        final Criteria[] ranges = upTo.entrySet()
+                .stream()
+                .map(stream -> where("aggregateUUID").is(stream.getKey()).and("sequence").lte(stream.getValue()))
+                .toArray(Criteria[]::new);
+        for (EventDescriptor event : this.find(Query.query(
+                new Criteria().andOperator(where("pendingSince").exists(true), new Criteria().orOperator(ranges))))) {
+            streams.get(event.getAggregateUUID()).add(event);
+        }
+        final List<EventDescriptor> batch = new ArrayList<>();
+        streams.values().forEach(batch::addAll);
+        return batch;
+    }
+
+    @Override
+    public void markPublished(UUID aggregateId, long afterSequence, long sequence) {
+        this.mongoTemplate.updateMulti(
+                Query.query(where("aggregateUUID").is(aggregateId)
+                        .and("sequence").gt(afterSequence).lte(sequence)
+                        .and("pendingSince").exists(true)),
+                new Update().unset("pendingSince").unset("publishAttempts").unset("nextAttemptAt").unset("outgoing"),
+                this.collection);
+    }
+
+    @Override
+    public void retryLater(UUID aggregateId, long sequence, int attempts, Instant nextAttemptAt) {
+        this.mongoTemplate.updateFirst(
+                Query.query(where("aggregateUUID").is(aggregateId).and("sequence").is(sequence)),
+                new Update().set("publishAttempts", attempts).set("nextAttemptAt", nextAttemptAt),
+                this.collection);
+    }
+
+    @Override
+    public Optional<EventDescriptor> loadEvent(UUID aggregateId, long sequence) {
+        return Optional.ofNullable(this.mongoTemplate.findOne(
+                Query.query(where("aggregateUUID").is(aggregateId).and("sequence").is(sequence)),
+                EventDescriptor.class,
+                this.collection));
+    }
+
+    /**
+     * One {@code $in} query per {@link #MAX_AGGREGATES_PER_QUERY} aggregates.
+     */
+    @Override
+    public Map<UUID, List<EventDescriptor>> loadAll(Collection<UUID> aggregateIds, long afterSequence) {
+        final Map<UUID, List<EventDescriptor>> streams = new LinkedHashMap<>();
+        aggregateIds.forEach(aggregateId -> streams.put(aggregateId, new ArrayList<>()));
+        final List<UUID> ids = new ArrayList<>(streams.keySet());
+        for (int from = 0; from < ids.size(); from += MAX_AGGREGATES_PER_QUERY) {
+            final List<UUID> chunk = ids.subList(from, Math.min(from + MAX_AGGREGATES_PER_QUERY, ids.size()));
+            for (EventDescriptor event : this.find(
+                    Query.query(where("aggregateUUID").in(chunk).and("sequence").gt(afterSequence)))) {
+                streams.get(event.getAggregateUUID()).add(event);
+            }
+        }
+        return streams;
+    }
+
+    private List<EventDescriptor> find(Query query) {
+        return this.mongoTemplate.find(query.with(STREAM_ORDER), EventDescriptor.class, this.collection);
+    }
+}
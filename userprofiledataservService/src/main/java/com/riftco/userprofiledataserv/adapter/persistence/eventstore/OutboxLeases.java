@@ -0,0 +1,79 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Makes one instance of the service at a time relay the outbox of an aggregate type, so that
+ * replicas do not publish the same events side by side and out of order. The holder of an
+ * outbox is recorded in a document per aggregate type, with the time its lease runs out;
+ * the holder renews it on every pass, and any instance may take it over once it ran out.
+ * <p>
+ * A lease is taken or renewed with a single upsert matching the type only while the lease
+ * is ours or expired. When another instance holds it, the upsert tries to insert a second
+ * document for the type and fails on its id. Expiry is judged on the clock of the instance
+ * asking, so {@code eventstore.outbox.lease-duration} should be well above the clock skew
+ * between instances, and above the time a relay pass takes.
+ */
+@Slf4j
+@Component
+public class OutboxLeases implements DisposableBean {
+
+    static final String COLLECTION = "outbox_leases";
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration duration;
+    private final String owner = UUID.randomUUID().toString();
+
+    public OutboxLeases(MongoTemplate mongoTemplate, EventStoreProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.duration = properties.getOutbox().getLeaseDuration();
+    }
+
+    /**
+     * Takes the lease on the outbox of the type, or renews it if this instance holds it.
+     *
+     * @return whether this instance holds the lease for another lease duration
+     */
+    boolean hold(String aggregateType) {
+        final Instant now = Instant.now();
+        try {
+            this.mongoTemplate.upsert(
+                    Query.query(where("_id").is(aggregateType)
+                            .orOperator(where("owner").is(this.owner), where("leaseUntil").lt(now))),
+                    new Update().set("owner", this.owner).set("leaseUntil", now.plus(this.duration)),
+                    COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gives up the leases this instance holds, so that another instance takes over the
+     * outboxes without waiting for them to run out.
+     */
+    @Override
+    public void destroy() {
+        try {
+            this.mongoTemplate.updateMulti(
+                    Query.query(where("owner").is(this.owner)),
+                    new Update().set("leaseUntil", Instant.EPOCH),
+                    COLLECTION);
+        } catch (DataAccessException e) {
+            log.warn("Could not release the outbox leases: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with full jitter: the n-th retry waits a random time between zero
+ * and {@code min(max, initial * 2^(n-1))}, which spreads out the retries of events that
+ * failed together, e.g. during a broker outage.
+ */
+class RetryBackoff {
+
+    private final long initialMillis;
+    private final long maxMillis;
+
+    RetryBackoff(Duration initial, Duration max) {
+        this.initialMillis = Math.max(1, initial.toMillis());
+        this.maxMillis = Math.max(this.initialMillis, max.toMillis());
+    }
+
+    Duration delay(int attempt) {
+        final int doublings = Math.min(Math.max(attempt - 1, 0), 30);
+        final long ceiling = Math.min(this.maxMillis, this.initialMillis << doublings);
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+}
@@ -1,42 +1,54 @@
-package com.riftco.userprofiledataserv.adapter.persistence.users.eventstore;
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
 
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.riftco.userprofiledataserv.domain.common.AggregateRoot;
 import com.riftco.userprofiledataserv.domain.common.ValueObject;
-import com.riftco.userprofiledataserv.domain.event.DomainEvent;
 import com.riftco.userprofiledataserv.domain.vo.*;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
-
 import static com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES;
 
-@Component("userEventSerializer")
-public class EventSerializer {
+/**
+ * Writes and reads aggregate state for snapshots. Aggregates keep their state in private
+ * fields without setters, so the mapper works on fields only and ignores getters. Restored
+ * value objects share the instances pooled by the {@link ValueObjectInterner}.
+ */
+@Component
+public class SnapshotSerializer {
     private final ObjectMapper objectMapper;
+    private final ValueObjectInterner interner;
+
+    SnapshotSerializer() {
+        this(ValueObjectInterner.none());
+    }
 
-    EventSerializer() {
+    @Autowired
+    SnapshotSerializer(ValueObjectInterner interner) {
+        this.interner = interner;
         this.objectMapper = new ObjectMapper();
         objectMapper.configure(FAIL_ON_UNKNOWN_PROPERTIES, false);
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        
-        // Register value object serializers and deserializers
+        objectMapper.setVisibility(PropertyAccessor.GETTER, Visibility.NONE);
+        objectMapper.setVisibility(PropertyAccessor.IS_GETTER, Visibility.NONE);
+        objectMapper.setVisibility(PropertyAccessor.SETTER, Visibility.NONE);
+        objectMapper.setVisibility(PropertyAccessor.FIELD, Visibility.ANY);
+        objectMapper.addMixIn(AggregateRoot.class, AggregateRootMixin.class);
+
         SimpleModule valueObjectModule = new SimpleModule("ValueObjectModule");
-        
-        // User value objects
         registerValueObject(valueObjectModule, Email.class);
         registerValueObject(valueObjectModule, PhoneNumber.class);
         registerValueObject(valueObjectModule, UserId.class);
-        
-        // Tenant value objects
         registerValueObject(valueObjectModule, TenantId.class);
         registerValueObject(valueObjectModule, TenantName.class);
-        
-        // Profile value objects
         registerValueObject(valueObjectModule, DisplayName.class);
         registerValueObject(valueObjectModule, AvatarUrl.class);
         registerValueObject(valueObjectModule, Biography.class);
@@ -46,38 +58,33 @@ public class EventSerializer {
         registerValueObject(valueObjectModule, LinkedInUrl.class);
         registerValueObject(valueObjectModule, TwitterUrl.class);
         registerValueObject(valueObjectModule, GitHubUrl.class);
-        
-        // Other value objects
         registerValueObject(valueObjectModule, SubscriptionPlan.class);
-        
-        // Register value object module
         objectMapper.registerModule(valueObjectModule);
-        
-        // Register enum module for handling domain enums
+
         objectMapper.registerModule(new EnumModule());
     }
-    
-    /**
-     * Helper method to register a value object with its serializer and deserializer
-     */
+
     private <T extends ValueObject> void registerValueObject(SimpleModule module, Class<T> valueObjectClass) {
-        module.addSerializer(valueObjectClass, new ValueObjectSerializer<>());
-        module.addDeserializer(valueObjectClass, new ValueObjectDeserializer<>(valueObjectClass));
+        module.addSerializer(valueObjectClass, new ValueObjectSerializer<>(valueObjectClass));
+        module.addDeserializer(valueObjectClass, new ValueObjectDeserializer<>(valueObjectClass, this.interner));
     }
 
-    EventDescriptor serialize(DomainEvent event) {
+    String serialize(AggregateRoot aggregate) {
         try {
-            return new EventDescriptor(objectMapper.writeValueAsString(event), event.getOccurredAt(), event.type());
+            return objectMapper.writeValueAsString(aggregate);
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
     }
 
-    DomainEvent deserialize(EventDescriptor eventDescriptor) {
-        try {
-            return objectMapper.readValue(eventDescriptor.getBody(), DomainEvent.class);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+    <A extends AggregateRoot> A deserialize(String state, Class<A> aggregateClass) throws JsonProcessingException {
+        return objectMapper.readValue(state, aggregateClass);
+    }
+
+    /**
+     * Uncommitted events are never part of a snapshot.
+     */
+    @JsonIgnoreProperties({"events"})
+    private abstract static class AggregateRootMixin {
     }
 }
@@ -0,0 +1,25 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Repository
+public interface SnapshotStore extends MongoRepository<AggregateSnapshot, String> {
+
+    default Optional<AggregateSnapshot> findLatest(String aggregateType, UUID aggregateUUID) {
+        return this.findById(AggregateSnapshot.idOf(aggregateType, aggregateUUID));
+    }
+
+    default List<AggregateSnapshot> findLatest(String aggregateType, Collection<UUID> aggregateUUIDs) {
+        return this.findAllById(aggregateUUIDs
+                .stream()
+                .map(aggregateUUID -> AggregateSnapshot.idOf(aggregateType, aggregateUUID))
+                .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,91 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.riftco.userprofiledataserv.domain.common.ValueObject;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Function;
+
+/**
+ * Generic deserializer for value objects that uses the static 'of' factory method
+ * present in all value objects to recreate them from their string representation.
+ * The factory is resolved once per value object class, and the value is read straight
+ * from the parser's tokens. Given a {@link ValueObjectInterner}, values of the types it
+ * pools are taken from there.
+ *
+ * @param <T> Type of the value object to deserialize
+ */
+public class ValueObjectDeserializer<T extends ValueObject> extends JsonDeserializer<T> {
+
+    private final Class<T> valueObjectClass;
+    private final MethodHandle of;
+    private final Function<String, T> factory;
+
+    public ValueObjectDeserializer(Class<T> valueObjectClass) {
+        this(valueObjectClass, ValueObjectInterner.none());
+    }
+
+    public ValueObjectDeserializer(Class<T> valueObjectClass, ValueObjectInterner interner) {
+        this.valueObjectClass = valueObjectClass;
+        try {
+            // All value objects have a static 'of' method for construction
+            this.of = MethodHandles.publicLookup()
+                    .findStatic(valueObjectClass, "of", MethodType.methodType(valueObjectClass, String.class))
+                    .asType(MethodType.methodType(ValueObject.class, String.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException(valueObjectClass.getName() + " has no public static of(String)", e);
+        }
+        this.factory = interner.interning(valueObjectClass, this::create);
+    }
+
+    @Override
+    public T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        // Handle both simple string values and objects with a value field
+        final String stringValue = switch (p.currentToken()) {
+            case VALUE_STRING -> p.getText();
+            case START_OBJECT, FIELD_NAME -> valueField(p);
+            default -> null;
+        };
+        if (stringValue == null) {
+            throw new IOException("Cannot deserialize " + this.valueObjectClass.getSimpleName()
+                    + " from " + p.currentToken());
+        }
+
+        try {
+            return this.factory.apply(stringValue);
+        } catch (RuntimeException e) {
+            throw new IOException("Error deserializing value object: " + e.getMessage(), e);
+        }
+    }
+
+    private T create(String value) {
+        try {
+            return this.valueObjectClass.cast((ValueObject) this.of.invokeExact(value));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String valueField(JsonParser p) throws IOException {
+        String value = null;
+        JsonToken token = p.currentToken() == JsonToken.START_OBJECT ? p.nextToken() : p.currentToken();
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            final String name = p.currentName();
+            p.nextToken();
+            if ("value".equals(name)) {
+                value = p.getValueAsString();
+            } else {
+                p.skipChildren();
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,79 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.riftco.userprofiledataserv.domain.vo.Department;
+import com.riftco.userprofiledataserv.domain.vo.JobTitle;
+import com.riftco.userprofiledataserv.domain.vo.Location;
+import com.riftco.userprofiledataserv.domain.vo.TenantId;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Pools of the value objects that take few distinct values across all events, so that
+ * replayed events, snapshots and the aggregates built from them share one instance per
+ * value instead of holding a copy each.
+ * <p>
+ * Value objects are immutable and equal text makes equal values whatever the tenant, so
+ * one pool per type serves every tenant. Each pool keeps at most
+ * {@code eventstore.interning.max-values-per-type} values; values evicted from it are
+ * simply created again. The pools are published as the {@code cache.*} meters tagged with
+ * {@code cache=interned.<type>}, {@code cache.size} being the number of distinct values held.
+ */
+@Component
+public class ValueObjectInterner implements GeneratedEventCodecs.Interner {
+
+    private static final Set<Class<?>> LOW_CARDINALITY = Set.of(
+            TenantId.class, Department.class, JobTitle.class, Location.class);
+
+    private final int maxValuesPerType;
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, Cache<String, Object>> pools = new ConcurrentHashMap<>();
+
+    @Autowired
+    ValueObjectInterner(EventStoreProperties properties, MeterRegistry meterRegistry) {
+        this(properties.getInterning().getMaxValuesPerType(), meterRegistry);
+    }
+
+    private ValueObjectInterner(int maxValuesPerType, MeterRegistry meterRegistry) {
+        this.maxValuesPerType = maxValuesPerType;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * No pools: every decoded value object is a new instance.
+     */
+    static ValueObjectInterner none() {
+        return new ValueObjectInterner(0, new SimpleMeterRegistry());
+    }
+
+    /**
+     * The factory to rebuild values of the type with: the given one for types that are not
+     * pooled, otherwise one that returns the pooled instance for text it has seen before.
+     */
+    @Override
+    public <T> Function<String, T> interning(Class<T> type, Function<String, T> factory) {
+        if (this.maxValuesPerType <= 0 || !LOW_CARDINALITY.contains(type)) {
+            return factory;
+        }
+        final Cache<String, Object> pool = this.pools.computeIfAbsent(type, this::pool);
+        return text -> type.cast(pool.get(text, factory));
+    }
+
+    private Cache<String, Object> pool(Class<?> type) {
+        final Cache<String, Object> pool = Caffeine.newBuilder()
+                .maximumSize(this.maxValuesPerType)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(this.meterRegistry, pool, "interned." + type.getSimpleName());
+        return pool;
+    }
+}
@@ -0,0 +1,60 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.riftco.userprofiledataserv.domain.common.ValueObject;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Generic serializer for value objects that writes them as the string form of their
+ * {@code getValue()}, or of {@code toString()} for value objects without one. The accessor
+ * is resolved once per value object class, when the serializer is registered.
+ *
+ * @param <T> Type of the value object to serialize
+ */
+public class ValueObjectSerializer<T extends ValueObject> extends JsonSerializer<T> {
+
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, ValueObject.class);
+
+    private final MethodHandle accessor;
+
+    public ValueObjectSerializer(Class<T> valueObjectClass) {
+        this.accessor = accessor(valueObjectClass);
+    }
+
+    @Override
+    public void serialize(T value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+
+        final Object rawValue;
+        try {
+            rawValue = (Object) this.accessor.invokeExact((ValueObject) value);
+        } catch (Throwable e) {
+            throw new IOException("Error serializing value object: " + e.getMessage(), e);
+        }
+        gen.writeString(rawValue == null ? value.toString() : rawValue.toString());
+    }
+
+    private static MethodHandle accessor(Class<?> valueObjectClass) {
+        final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        try {
+            // Most value objects expose their raw value through a Lombok getter
+            return lookup.unreflect(valueObjectClass.getMethod("getValue")).asType(ACCESSOR_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            try {
+                return lookup.findVirtual(Object.class, "toString", MethodType.methodType(String.class))
+                        .asType(ACCESSOR_TYPE);
+            } catch (ReflectiveOperationException unexpected) {
+                throw new IllegalStateException(unexpected);
+            }
+        }
+    }
+}
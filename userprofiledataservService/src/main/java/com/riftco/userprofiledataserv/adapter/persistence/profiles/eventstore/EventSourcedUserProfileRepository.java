@@ -1,67 +1,75 @@
 package com.riftco.userprofiledataserv.adapter.persistence.profiles.eventstore;
 
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.AggregateType;
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.AggregateWeigher;
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.EventSourcedRepositories;
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.EventSourcedRepository;
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.EventStorage;
 import com.riftco.userprofiledataserv.adapter.persistence.profiles.UserProfileRepository;
 import com.riftco.userprofiledataserv.application.port.out.SendUserProfileEventToBroker;
 import com.riftco.userprofiledataserv.domain.UserProfile;
-import com.riftco.userprofiledataserv.domain.event.DomainEvent;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Component
 public class EventSourcedUserProfileRepository implements UserProfileRepository {
 
-    private final EventStore eventStore;
-    private final EventSerializer eventSerializer;
-    private final SendUserProfileEventToBroker sendUserProfileEventToBroker;
-    
+    static final AggregateType<UserProfile> USER_PROFILE = AggregateType.<UserProfile>builder()
+            .name("user-profile")
+            .aggregateClass(UserProfile.class)
+            .rebuild(UserProfile::from)
+            .replay(UserProfile::replay)
+            .uncommittedEvents(UserProfile::getUncommittedEvents)
+            .markCommitted(UserProfile::markEventsAsCommitted)
+            .copy(UserProfile::copy)
+            .weigher(EventSourcedUserProfileRepository::weigh)
+            .tenant(UserProfile::getTenantId)
+            .build();
+
+    private final EventSourcedRepository<UserProfile> events;
+
     public EventSourcedUserProfileRepository(
-            @Qualifier("profileEventStore") EventStore eventStore,
-            @Qualifier("profileEventSerializer") EventSerializer eventSerializer,
-            SendUserProfileEventToBroker sendUserProfileEventToBroker) {
-        this.eventStore = eventStore;
-        this.eventSerializer = eventSerializer;
-        this.sendUserProfileEventToBroker = sendUserProfileEventToBroker;
+            @Qualifier("profileEventStorage") EventStorage eventStorage,
+            SendUserProfileEventToBroker sendUserProfileEventToBroker,
+            EventSourcedRepositories repositories) {
+        this.events = repositories.create(USER_PROFILE, eventStorage, sendUserProfileEventToBroker::sendAllAsync);
     }
 
     @Override
     public UserProfile save(UserProfile aggregate) {
-        final List<DomainEvent> pendingEvents = aggregate.getUncommittedEvents();
-        this.eventStore.saveEvents(
-                aggregate.getUUID(),
-                pendingEvents
-                        .stream()
-                        .map(this.eventSerializer::serialize)
-                        .collect(Collectors.toList())
-        );
-        pendingEvents.forEach(this.sendUserProfileEventToBroker::send);
-        return aggregate.markEventsAsCommitted();
+        return this.events.save(aggregate);
     }
 
     @Override
     public UserProfile getByUUID(UUID uuid) {
-        return UserProfile.from(uuid, this.getRelatedEvents(uuid));
+        return this.events.getByUUID(uuid);
     }
 
     @Override
     public UserProfile getByUUIDat(UUID uuid, Instant at) {
-        return UserProfile.from(
-                uuid,
-                this.getRelatedEvents(uuid)
-                        .stream()
-                        .filter(evt -> !evt.getOccurredAt().isAfter(at))
-                        .collect(Collectors.toList())
-        );
+        return this.events.getByUUIDat(uuid, at);
+    }
+
+    @Override
+    public List<UserProfile> getByUUIDs(Collection<UUID> uuids) {
+        return this.events.getByUUIDs(uuids);
+    }
+
+    @Override
+    public boolean exists(UUID uuid) {
+        return this.events.exists(uuid);
     }
 
-    private List<DomainEvent> getRelatedEvents(UUID uuid) {
-        return this.eventStore.getEventsForAggregate(uuid)
-                .stream()
-                .map(this.eventSerializer::deserialize)
-                .collect(Collectors.toList());
+    private static int weigh(UserProfile userProfile) {
+        return AggregateWeigher.estimate(
+                userProfile.getDisplayName(), userProfile.getAvatarUrl(), userProfile.getBiography(),
+                userProfile.getJobTitle(), userProfile.getDepartment(), userProfile.getLocation(),
+                userProfile.getLinkedInUrl(), userProfile.getTwitterUrl(), userProfile.getGithubUrl(),
+                userProfile.getPreferences(), userProfile.getAttributes());
     }
 }
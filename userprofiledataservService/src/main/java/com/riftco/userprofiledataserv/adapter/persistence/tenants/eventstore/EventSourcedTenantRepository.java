@@ -1,67 +1,71 @@
 package com.riftco.userprofiledataserv.adapter.persistence.tenants.eventstore;
 
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.AggregateType;
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.AggregateWeigher;
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.EventSourcedRepositories;
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.EventSourcedRepository;
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.EventStorage;
 import com.riftco.userprofiledataserv.adapter.persistence.tenants.TenantRepository;
 import com.riftco.userprofiledataserv.application.port.out.SendTenantEventToBroker;
 import com.riftco.userprofiledataserv.domain.Tenant;
-import com.riftco.userprofiledataserv.domain.event.DomainEvent;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Component
 public class EventSourcedTenantRepository implements TenantRepository {
 
-    private final EventStore eventStore;
-    private final EventSerializer eventSerializer;
-    private final SendTenantEventToBroker sendTenantEventToBroker;
-    
+    static final AggregateType<Tenant> TENANT = AggregateType.<Tenant>builder()
+            .name("tenant")
+            .aggregateClass(Tenant.class)
+            .rebuild(Tenant::from)
+            .replay(Tenant::replay)
+            .uncommittedEvents(Tenant::getUncommittedEvents)
+            .markCommitted(Tenant::markEventsAsCommitted)
+            .copy(Tenant::copy)
+            .weigher(EventSourcedTenantRepository::weigh)
+            .tenant(Tenant::getTenantId)
+            .build();
+
+    private final EventSourcedRepository<Tenant> events;
+
     public EventSourcedTenantRepository(
-            @Qualifier("tenantEventStore") EventStore eventStore,
-            @Qualifier("tenantEventSerializer") EventSerializer eventSerializer,
-            SendTenantEventToBroker sendTenantEventToBroker) {
-        this.eventStore = eventStore;
-        this.eventSerializer = eventSerializer;
-        this.sendTenantEventToBroker = sendTenantEventToBroker;
+            @Qualifier("tenantEventStorage") EventStorage eventStorage,
+            SendTenantEventToBroker sendTenantEventToBroker,
+            EventSourcedRepositories repositories) {
+        this.events = repositories.create(TENANT, eventStorage, sendTenantEventToBroker::sendAllAsync);
     }
 
     @Override
     public Tenant save(Tenant aggregate) {
-        final List<DomainEvent> pendingEvents = aggregate.getUncommittedEvents();
-        this.eventStore.saveEvents(
-                aggregate.getUUID(),
-                pendingEvents
-                        .stream()
-                        .map(this.eventSerializer::serialize)
-                        .collect(Collectors.toList())
-        );
-        pendingEvents.forEach(this.sendTenantEventToBroker::send);
-        return aggregate.markEventsAsCommitted();
+        return this.events.save(aggregate);
     }
 
     @Override
     public Tenant getByUUID(UUID uuid) {
-        return Tenant.from(uuid, this.getRelatedEvents(uuid));
+        return this.events.getByUUID(uuid);
     }
 
     @Override
     public Tenant getByUUIDat(UUID uuid, Instant at) {
-        return Tenant.from(
-                uuid,
-                this.getRelatedEvents(uuid)
-                        .stream()
-                        .filter(evt -> !evt.getOccurredAt().isAfter(at))
-                        .collect(Collectors.toList())
-        );
+        return this.events.getByUUIDat(uuid, at);
+    }
+
+    @Override
+    public List<Tenant> getByUUIDs(Collection<UUID> uuids) {
+        return this.events.getByUUIDs(uuids);
+    }
+
+    @Override
+    public boolean exists(UUID uuid) {
+        return this.events.exists(uuid);
     }
 
-    private List<DomainEvent> getRelatedEvents(UUID uuid) {
-        return this.eventStore.getEventsForAggregate(uuid)
-                .stream()
-                .map(this.eventSerializer::deserialize)
-                .collect(Collectors.toList());
+    private static int weigh(Tenant tenant) {
+        return AggregateWeigher.estimate(tenant.getName(), tenant.getDescription());
     }
 }
@@ -3,6 +3,7 @@ package com.riftco.userprofiledataserv.adapter.persistence.tenantusers;
 import com.riftco.userprofiledataserv.domain.TenantUser;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,6 +13,17 @@ public interface TenantUserRepository {
     TenantUser getByUUID(UUID uuid);
 
     TenantUser getByUUIDat(UUID uuid, Instant at);
+
+    /**
+     * Loads several aggregates at once, in the order of their first appearance in
+     * {@code uuids}.
+     */
+    List<TenantUser> getByUUIDs(Collection<UUID> uuids);
+
+    /**
+     * Whether any event has been recorded for the aggregate, without rebuilding it.
+     */
+    boolean exists(UUID uuid);
     
     /**
      * Count the number of users associated with a specific tenant
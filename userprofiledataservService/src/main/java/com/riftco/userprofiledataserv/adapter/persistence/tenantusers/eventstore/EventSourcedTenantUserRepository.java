@@ -1,71 +1,71 @@
 package com.riftco.userprofiledataserv.adapter.persistence.tenantusers.eventstore;
 
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.AggregateType;
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.AggregateWeigher;
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.EventSourcedRepositories;
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.EventSourcedRepository;
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.EventStorage;
 import com.riftco.userprofiledataserv.adapter.persistence.tenantusers.TenantUserRepository;
 import com.riftco.userprofiledataserv.application.port.out.SendTenantUserEventToBroker;
 import com.riftco.userprofiledataserv.domain.TenantUser;
-import com.riftco.userprofiledataserv.domain.event.DomainEvent;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Component
 public class EventSourcedTenantUserRepository implements TenantUserRepository {
 
-    private final EventStore eventStore;
-    private final EventSerializer eventSerializer;
-    private final SendTenantUserEventToBroker sendTenantUserEventToBroker;
-    
+    static final AggregateType<TenantUser> TENANT_USER = AggregateType.<TenantUser>builder()
+            .name("tenant-user")
+            .aggregateClass(TenantUser.class)
+            .rebuild(TenantUser::from)
+            .replay(TenantUser::replay)
+            .uncommittedEvents(TenantUser::getUncommittedEvents)
+            .markCommitted(TenantUser::markEventsAsCommitted)
+            .copy(TenantUser::copy)
+            .weigher(EventSourcedTenantUserRepository::weigh)
+            .tenant(TenantUser::getTenantId)
+            .build();
+
+    private final EventSourcedRepository<TenantUser> events;
+
     public EventSourcedTenantUserRepository(
-            @Qualifier("tenantUserEventStore") EventStore eventStore,
-            @Qualifier("tenantUserEventSerializer") EventSerializer eventSerializer,
-            SendTenantUserEventToBroker sendTenantUserEventToBroker) {
-        this.eventStore = eventStore;
-        this.eventSerializer = eventSerializer;
-        this.sendTenantUserEventToBroker = sendTenantUserEventToBroker;
+            @Qualifier("tenantUserEventStorage") EventStorage eventStorage,
+            SendTenantUserEventToBroker sendTenantUserEventToBroker,
+            EventSourcedRepositories repositories) {
+        this.events = repositories.create(TENANT_USER, eventStorage, sendTenantUserEventToBroker::sendAllAsync);
     }
 
     @Override
     public TenantUser save(TenantUser aggregate) {
-        final List<DomainEvent> pendingEvents = aggregate.getUncommittedEvents();
-        this.eventStore.saveEvents(
-                aggregate.getUUID(),
-                pendingEvents
-                        .stream()
-                        .map(this.eventSerializer::serialize)
-                        .collect(Collectors.toList())
-        );
-        pendingEvents.forEach(this.sendTenantUserEventToBroker::send);
-        return aggregate.markEventsAsCommitted();
+        return this.events.save(aggregate);
     }
 
     @Override
     public TenantUser getByUUID(UUID uuid) {
-        return TenantUser.from(uuid, this.getRelatedEvents(uuid));
+        return this.events.getByUUID(uuid);
     }
 
     @Override
     public TenantUser getByUUIDat(UUID uuid, Instant at) {
-        return TenantUser.from(
-                uuid,
-                this.getRelatedEvents(uuid)
-                        .stream()
-                        .filter(evt -> !evt.getOccurredAt().isAfter(at))
-                        .collect(Collectors.toList())
-        );
+        return this.events.getByUUIDat(uuid, at);
     }
 
-    private List<DomainEvent> getRelatedEvents(UUID uuid) {
-        return this.eventStore.getEventsForAggregate(uuid)
-                .stream()
-                .map(this.eventSerializer::deserialize)
-                .collect(Collectors.toList());
+    @Override
+    public List<TenantUser> getByUUIDs(Collection<UUID> uuids) {
+        return this.events.getByUUIDs(uuids);
     }
-    
+
+    @Override
+    public boolean exists(UUID uuid) {
+        return this.events.exists(uuid);
+    }
+
     @Override
     public int countByTenantId(UUID tenantId) {
         // In an event-sourced system, we need to fetch and reconstruct all tenant users
@@ -91,4 +91,8 @@ public class EventSourcedTenantUserRepository implements TenantUserRepository {
         
         return result;
     }
+
+    private static int weigh(TenantUser tenantUser) {
+        return AggregateWeigher.estimate();
+    }
 }
@@ -3,6 +3,8 @@ package com.riftco.userprofiledataserv.adapter.persistence.users;
 import com.riftco.userprofiledataserv.domain.User;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface UserRepository {
@@ -11,4 +13,15 @@ public interface UserRepository {
     User getByUUID(UUID uuid);
 
     User getByUUIDat(UUID uuid, Instant at);
+
+    /**
+     * Loads several aggregates at once, in the order of their first appearance in
+     * {@code uuids}.
+     */
+    List<User> getByUUIDs(Collection<UUID> uuids);
+
+    /**
+     * Whether any event has been recorded for the aggregate, without rebuilding it.
+     */
+    boolean exists(UUID uuid);
 }
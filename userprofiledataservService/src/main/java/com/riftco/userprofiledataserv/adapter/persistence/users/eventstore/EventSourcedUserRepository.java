@@ -1,67 +1,71 @@
 package com.riftco.userprofiledataserv.adapter.persistence.users.eventstore;
 
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.AggregateType;
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.AggregateWeigher;
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.EventSourcedRepositories;
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.EventSourcedRepository;
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.EventStorage;
 import com.riftco.userprofiledataserv.adapter.persistence.users.UserRepository;
 import com.riftco.userprofiledataserv.application.port.out.SendUserEventToBroker;
 import com.riftco.userprofiledataserv.domain.User;
-import com.riftco.userprofiledataserv.domain.event.DomainEvent;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Component
 public class EventSourcedUserRepository implements UserRepository {
 
-    private final EventStore eventStore;
-    private final EventSerializer eventSerializer;
-    private final SendUserEventToBroker sendUserEventToBroker;
-    
+    static final AggregateType<User> USER = AggregateType.<User>builder()
+            .name("user")
+            .aggregateClass(User.class)
+            .rebuild(User::from)
+            .replay(User::replay)
+            .uncommittedEvents(User::getUncommittedEvents)
+            .markCommitted(User::markEventsAsCommitted)
+            .copy(User::copy)
+            .weigher(EventSourcedUserRepository::weigh)
+            .tenant(User::getTenantId)
+            .build();
+
+    private final EventSourcedRepository<User> events;
+
     public EventSourcedUserRepository(
-            @Qualifier("userEventStore") EventStore eventStore,
-            @Qualifier("userEventSerializer") EventSerializer eventSerializer,
-            SendUserEventToBroker sendUserEventToBroker) {
-        this.eventStore = eventStore;
-        this.eventSerializer = eventSerializer;
-        this.sendUserEventToBroker = sendUserEventToBroker;
+            @Qualifier("userEventStorage") EventStorage eventStorage,
+            SendUserEventToBroker sendUserEventToBroker,
+            EventSourcedRepositories repositories) {
+        this.events = repositories.create(USER, eventStorage, sendUserEventToBroker::sendAllAsync);
     }
 
     @Override
     public User save(User aggregate) {
-        final List<DomainEvent> pendingEvents = aggregate.getUncommittedEvents();
-        this.eventStore.saveEvents(
-                aggregate.getUUID(),
-                pendingEvents
-                        .stream()
-                        .map(this.eventSerializer::serialize)
-                        .collect(Collectors.toList())
-        );
-        pendingEvents.forEach(this.sendUserEventToBroker::send);
-        return aggregate.markEventsAsCommitted();
+        return this.events.save(aggregate);
     }
 
     @Override
     public User getByUUID(UUID uuid) {
-        return User.from(uuid, this.getRelatedEvents(uuid));
+        return this.events.getByUUID(uuid);
     }
 
     @Override
     public User getByUUIDat(UUID uuid, Instant at) {
-        return User.from(
-                uuid,
-                this.getRelatedEvents(uuid)
-                        .stream()
-                        .filter(evt -> !evt.getOccurredAt().isAfter(at))
-                        .collect(Collectors.toList())
-        );
+        return this.events.getByUUIDat(uuid, at);
+    }
+
+    @Override
+    public List<User> getByUUIDs(Collection<UUID> uuids) {
+        return this.events.getByUUIDs(uuids);
+    }
+
+    @Override
+    public boolean exists(UUID uuid) {
+        return this.events.exists(uuid);
     }
 
-    private List<DomainEvent> getRelatedEvents(UUID uuid) {
-        return this.eventStore.getEventsForAggregate(uuid)
-                .stream()
-                .map(this.eventSerializer::deserialize)
-                .collect(Collectors.toList());
+    private static int weigh(User user) {
+        return AggregateWeigher.estimate(user.getName(), user.getEmail(), user.getContactNumber());
     }
 }
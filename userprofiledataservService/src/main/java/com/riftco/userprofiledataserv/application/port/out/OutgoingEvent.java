@@ -0,0 +1,47 @@
+package com.riftco.userprofiledataserv.application.port.out;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A stored event on its way to the broker: the JSON it is published as and what the event
+ * store recorded about it, for consumers to route and deduplicate on without reading the
+ * payload. The event itself is not decoded to publish it.
+ */
+@Getter
+@RequiredArgsConstructor
+public class OutgoingEvent {
+
+    /**
+     * Aggregate the event belongs to, which keys the message.
+     */
+    private final UUID aggregateUUID;
+
+    /**
+     * Type id of the event, as in its {@code type} property.
+     */
+    private final String type;
+
+    private final byte[] payload;
+
+    /**
+     * Position of the event in its aggregate's stream.
+     */
+    private final long sequence;
+
+    /**
+     * Schema version of the payload.
+     */
+    private final int schemaVersion;
+
+    private final Instant occurredAt;
+
+    /**
+     * Tenant of the aggregate when the event was saved; null for events stored before the
+     * tenant was recorded.
+     */
+    private final String tenantId;
+}
@@ -1,7 +1,25 @@
 package com.riftco.userprofiledataserv.application.port.out;
 
-import com.riftco.userprofiledataserv.domain.event.DomainEvent;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface SendUserProfileEventToBroker {
-    void send(DomainEvent event);
+    /**
+     * Publishes a stored event with the JSON it was encoded as. Throws if the broker does
+     * not take the event, so that the caller can send it again.
+     */
+    void send(OutgoingEvent event);
+
+    /**
+     * Publishes a stored event without waiting for the broker. The returned future fails if
+     * the broker does not take the event.
+     */
+    CompletableFuture<Void> sendAsync(OutgoingEvent event);
+
+    /**
+     * Publishes the events of one save together without waiting for the broker. When the
+     * broker is transactional the events become visible together or not at all; the
+     * returned future fails if any of them was not taken.
+     */
+    CompletableFuture<Void> sendAllAsync(List<OutgoingEvent> events);
 }
@@ -0,0 +1,42 @@
+package com.riftco.userprofiledataserv.config;
+
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.EventStorage;
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.EventStoreProperties;
+import com.riftco.userprofiledataserv.adapter.persistence.eventstore.MongoEventStorage;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration for the event-sourced persistence of the aggregates.
+ * Per aggregate type settings live under the {@code eventstore} prefix; the storage of
+ * each type's streams is a bean of its own so it can be swapped independently.
+ * Scheduling runs the relay that publishes stored events from the outboxes.
+ */
+@Configuration
+@EnableConfigurationProperties(EventStoreProperties.class)
+@EnableScheduling
+public class EventStoreConfig {
+
+    @Bean
+    public EventStorage userEventStorage(MongoTemplate mongoTemplate) {
+        return new MongoEventStorage(mongoTemplate, "users_event_log");
+    }
+
+    @Bean
+    public EventStorage tenantEventStorage(MongoTemplate mongoTemplate) {
+        return new MongoEventStorage(mongoTemplate, "tenant_event_log");
+    }
+
+    @Bean
+    public EventStorage tenantUserEventStorage(MongoTemplate mongoTemplate) {
+        return new MongoEventStorage(mongoTemplate, "tenant_user_event_log");
+    }
+
+    @Bean
+    public EventStorage profileEventStorage(MongoTemplate mongoTemplate) {
+        return new MongoEventStorage(mongoTemplate, "user_profile_event_log");
+    }
+}
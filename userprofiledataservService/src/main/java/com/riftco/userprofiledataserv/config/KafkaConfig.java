@@ -1,18 +1,29 @@
 package com.riftco.userprofiledataserv.config;
 
+import com.riftco.userprofiledataserv.adapter.broker.BrokerPublisherProperties;
+import com.riftco.userprofiledataserv.adapter.broker.BrokerSender;
 import com.riftco.userprofiledataserv.adapter.broker.SourceBinding;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.stream.binder.BinderFactory;
+import org.springframework.cloud.stream.binder.kafka.KafkaMessageChannelBinder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Kafka configuration for Spring Cloud Stream
  * 
  * Note: This configuration has been simplified since we now use StreamBridge directly in adapters.
  * The SourceBinding interface is kept for backward compatibility and topic name constants.
+ * How the adapters hand events to the binder is set under {@code broker.publisher}.
  */
 @Configuration
+@EnableConfigurationProperties(BrokerPublisherProperties.class)
 public class KafkaConfig {
     
     /**
@@ -24,6 +35,30 @@ public class KafkaConfig {
     public SourceBinding sourceBinding() {
         return new SourceBindingImpl();
     }
+
+    /**
+     * Receives each record the broker acknowledged from the Kafka binder, for
+     * {@code BrokerSender} to complete its send.
+     */
+    @Bean(BrokerSender.ACKNOWLEDGEMENTS)
+    public MessageChannel brokerAcknowledgements() {
+        return new DirectChannel();
+    }
+
+    /**
+     * Runs the sends of one save in a Kafka transaction on the binder's transactional
+     * producers, see {@code BrokerSender}. Only defined when the binder has a
+     * transaction-id-prefix. The transaction manager is kept out of the context on purpose:
+     * as a bean it would make the services' {@code @Transactional} methods start Kafka
+     * transactions.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.cloud.stream.kafka.binder.transaction", name = "transaction-id-prefix")
+    public TransactionTemplate brokerTransactions(BinderFactory binderFactory) {
+        KafkaMessageChannelBinder binder =
+                (KafkaMessageChannelBinder) binderFactory.getBinder(null, MessageChannel.class);
+        return new TransactionTemplate(new KafkaTransactionManager<>(binder.getTransactionalProducerFactory()));
+    }
     
     private static class SourceBindingImpl implements SourceBinding {
         
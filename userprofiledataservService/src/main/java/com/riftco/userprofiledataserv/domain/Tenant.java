@@ -38,7 +38,7 @@ public final class Tenant extends AggregateRoot {
             subscriptionPlan = SubscriptionPlan.freePlan(); // Default to free plan if not specified
         }
         TenantId uuid = TenantId.generate();
-        return this.applyEvent(new TenantCreatedEvent(
+        return new Tenant().applyEvent(new TenantCreatedEvent(
                 uuid.toUUID(),
                 uuid,
                 name,
@@ -99,10 +99,21 @@ public final class Tenant extends AggregateRoot {
     }
 
     public static Tenant from(UUID uuid, List<DomainEvent> history) {
+        return new Tenant().replay(history);
+    }
+
+    /**
+     * Applies committed events on top of the current state, e.g. the events recorded
+     * after the snapshot this instance was restored from.
+     *
+     * @param history Committed events in stream order
+     * @return This instance, advanced to the version of the last event
+     */
+    public Tenant replay(List<DomainEvent> history) {
         return history
                 .stream()
                 .reduce(
-                        NONE,
+                        this,
                         (tenant, event) -> tenant.applyEvent(event, false),
                         (t1, t2) -> {throw new UnsupportedOperationException();}
                 );
@@ -116,6 +127,8 @@ public final class Tenant extends AggregateRoot {
         final Tenant tenant = this.apply(event);
         if (isNew) {
             tenant.getEvents().add(event);
+        } else {
+            tenant.incrementVersion();
         }
         return tenant;
     }
@@ -178,10 +191,32 @@ public final class Tenant extends AggregateRoot {
     }
 
     public Tenant markEventsAsCommitted() {
-        this.getEvents().clear();
+        this.commitEvents();
         return this;
     }
 
+    /**
+     * Returns an independent copy of the committed state, so that a kept instance can be
+     * handed out without changes made to the copy leaking back into it.
+     * Uncommitted events are not copied.
+     *
+     * @return A new Tenant instance at the same version
+     */
+    public Tenant copy() {
+        final Tenant copy = this.copyInto(new Tenant());
+        copy.tenantId = this.tenantId;
+        copy.name = this.name;
+        copy.status = this.status;
+        copy.type = this.type;
+        copy.description = this.description;
+        copy.subscriptionPlan = this.subscriptionPlan;
+        copy.subscriptionStartDate = this.subscriptionStartDate;
+        copy.subscriptionEndDate = this.subscriptionEndDate;
+        copy.createdAt = this.createdAt;
+        copy.updatedAt = this.updatedAt;
+        return copy;
+    }
+
     public TenantId getTenantId() {
         return tenantId;
     }
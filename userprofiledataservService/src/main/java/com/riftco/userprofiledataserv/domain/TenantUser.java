@@ -59,7 +59,7 @@ public final class TenantUser extends AggregateRoot {
             role = UserRole.TENANT_ADMIN;
         }
 
-        return this.applyEvent(new TenantUserCreatedEvent(
+        return new TenantUser().applyEvent(new TenantUserCreatedEvent(
                 userId.toUUID(),
                 tenant.getTenantId(),
                 userId,
@@ -95,10 +95,21 @@ public final class TenantUser extends AggregateRoot {
     }
 
     public static TenantUser from(UUID uuid, List<DomainEvent> history) {
+        return new TenantUser().replay(history);
+    }
+
+    /**
+     * Applies committed events on top of the current state, e.g. the events recorded
+     * after the snapshot this instance was restored from.
+     *
+     * @param history Committed events in stream order
+     * @return This instance, advanced to the version of the last event
+     */
+    public TenantUser replay(List<DomainEvent> history) {
         return history
                 .stream()
                 .reduce(
-                        NONE,
+                        this,
                         (tenantUser, event) -> tenantUser.applyEvent(event, false),
                         (t1, t2) -> {throw new UnsupportedOperationException();}
                 );
@@ -112,6 +123,8 @@ public final class TenantUser extends AggregateRoot {
         final TenantUser tenantUser = this.apply(event);
         if (isNew) {
             tenantUser.getEvents().add(event);
+        } else {
+            tenantUser.incrementVersion();
         }
         return tenantUser;
     }
@@ -156,10 +169,28 @@ public final class TenantUser extends AggregateRoot {
     }
 
     public TenantUser markEventsAsCommitted() {
-        this.getEvents().clear();
+        this.commitEvents();
         return this;
     }
 
+    /**
+     * Returns an independent copy of the committed state, so that a kept instance can be
+     * handed out without changes made to the copy leaking back into it.
+     * Uncommitted events are not copied.
+     *
+     * @return A new TenantUser instance at the same version
+     */
+    public TenantUser copy() {
+        final TenantUser copy = this.copyInto(new TenantUser());
+        copy.tenantId = this.tenantId;
+        copy.userId = this.userId;
+        copy.role = this.role;
+        copy.active = this.active;
+        copy.createdAt = this.createdAt;
+        copy.updatedAt = this.updatedAt;
+        return copy;
+    }
+
     // Getters
     public TenantId getTenantId() {
         return tenantId;
@@ -60,7 +60,7 @@ public final class User extends AggregateRoot {
             throw new IllegalArgumentException("Contact number cannot be null");
         }
         UserId uuid = UserId.generate();
-        return this.applyEvent(new UserCreatedEvent(
+        return new User().applyEvent(new UserCreatedEvent(
                 uuid.toUUID(),
                 uuid,
                 tenantId,
@@ -73,10 +73,21 @@ public final class User extends AggregateRoot {
 
 
     public static User from(UUID uuid, List<DomainEvent> history) {
+        return new User().replay(history);
+    }
+
+    /**
+     * Applies committed events on top of the current state, e.g. the events recorded
+     * after the snapshot this instance was restored from.
+     *
+     * @param history Committed events in stream order
+     * @return This instance, advanced to the version of the last event
+     */
+    public User replay(List<DomainEvent> history) {
         return history
                 .stream()
                 .reduce(
-                        NONE,
+                        this,
                         (tx, event) -> tx.applyEvent(event, false),
                         (t1, t2) -> {throw new UnsupportedOperationException();}
                 );
@@ -90,6 +101,8 @@ public final class User extends AggregateRoot {
         final User user = this.apply(event);
         if (isNew) {
             user.getEvents().add(event);
+        } else {
+            user.incrementVersion();
         }
         return user;
     }
@@ -260,8 +273,28 @@ public final class User extends AggregateRoot {
     }
 
     public User markEventsAsCommitted() {
-        this.getEvents().clear();
+        this.commitEvents();
         return this;
     }
 
+    /**
+     * Returns an independent copy of the committed state, so that a kept instance can be
+     * handed out without changes made to the copy leaking back into it.
+     * Uncommitted events are not copied.
+     *
+     * @return A new User instance at the same version
+     */
+    public User copy() {
+        final User copy = this.copyInto(new User());
+        copy.userId = this.userId;
+        copy.tenantId = this.tenantId;
+        copy.state = this.state;
+        copy.name = this.name;
+        copy.email = this.email;
+        copy.contactNumber = this.contactNumber;
+        copy.createdAt = this.createdAt;
+        copy.updatedAt = this.updatedAt;
+        return copy;
+    }
+
 }
@@ -62,7 +62,7 @@ public final class UserProfile extends AggregateRoot {
             throw new IllegalArgumentException("Tenant ID cannot be null");
         }
 
-        return this.applyEvent(new UserProfileCreatedEvent(
+        return new UserProfile().applyEvent(new UserProfileCreatedEvent(
                 userId.toUUID(),
                 userId,
                 tenantId,
@@ -217,7 +217,7 @@ public final class UserProfile extends AggregateRoot {
         TwitterUrl finalTwitterUrl = twitterUrl != null ? twitterUrl : TwitterUrl.empty();
         GitHubUrl finalGithubUrl = githubUrl != null ? githubUrl : GitHubUrl.empty();
         
-        return this.applyEvent(new UserProfileCreatedEvent(
+        return new UserProfile().applyEvent(new UserProfileCreatedEvent(
                 UUID.randomUUID(),
                 userId,
                 tenantId,
@@ -235,10 +235,21 @@ public final class UserProfile extends AggregateRoot {
     }
 
     public static UserProfile from(UUID uuid, List<DomainEvent> history) {
+        return new UserProfile().replay(history);
+    }
+
+    /**
+     * Applies committed events on top of the current state, e.g. the events recorded
+     * after the snapshot this instance was restored from.
+     *
+     * @param history Committed events in stream order
+     * @return This instance, advanced to the version of the last event
+     */
+    public UserProfile replay(List<DomainEvent> history) {
         return history
                 .stream()
                 .reduce(
-                        NONE,
+                        this,
                         (profile, event) -> profile.applyEvent(event, false),
                         (p1, p2) -> {throw new UnsupportedOperationException();}
                 );
@@ -252,6 +263,8 @@ public final class UserProfile extends AggregateRoot {
         final UserProfile profile = this.apply(event);
         if (isNew) {
             profile.getEvents().add(event);
+        } else {
+            profile.incrementVersion();
         }
         return profile;
     }
@@ -328,10 +341,37 @@ public final class UserProfile extends AggregateRoot {
     }
 
     public UserProfile markEventsAsCommitted() {
-        this.getEvents().clear();
+        this.commitEvents();
         return this;
     }
 
+    /**
+     * Returns an independent copy of the committed state, so that a kept instance can be
+     * handed out without changes made to the copy leaking back into it.
+     * Uncommitted events are not copied.
+     *
+     * @return A new UserProfile instance at the same version
+     */
+    public UserProfile copy() {
+        final UserProfile copy = this.copyInto(new UserProfile());
+        copy.userId = this.userId;
+        copy.tenantId = this.tenantId;
+        copy.displayName = this.displayName;
+        copy.avatarUrl = this.avatarUrl;
+        copy.biography = this.biography;
+        copy.jobTitle = this.jobTitle;
+        copy.department = this.department;
+        copy.location = this.location;
+        copy.linkedInUrl = this.linkedInUrl;
+        copy.twitterUrl = this.twitterUrl;
+        copy.githubUrl = this.githubUrl;
+        copy.preferences = new HashMap<>(this.preferences);
+        copy.attributes = new HashMap<>(this.attributes);
+        copy.createdAt = this.createdAt;
+        copy.updatedAt = this.updatedAt;
+        return copy;
+    }
+
     // Getters
     public UserId getUserId() {
         return userId;
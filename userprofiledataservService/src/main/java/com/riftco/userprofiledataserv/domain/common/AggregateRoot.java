@@ -16,4 +16,37 @@ public abstract class AggregateRoot extends Entity {
         return this.events;
     }
 
+    /**
+     * Number of committed events this aggregate was built from, which is also the
+     * sequence of the last event in its stream. Uncommitted events are not counted,
+     * so this is the version a repository expects when appending them.
+     */
+    public int getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Records that a historical event has been applied.
+     */
+    protected void incrementVersion() {
+        this.version++;
+    }
+
+    /**
+     * Moves the uncommitted events into the committed version.
+     */
+    protected void commitEvents() {
+        this.version += this.events.size();
+        this.events.clear();
+    }
+
+    /**
+     * Copies identity and committed version into a fresh instance; subclasses copy their own state.
+     */
+    protected <T extends AggregateRoot> T copyInto(T copy) {
+        copy.setUUID(this.getUUID());
+        ((AggregateRoot) copy).version = this.version;
+        return copy;
+    }
+
 }
@@ -19,6 +19,12 @@ public final class SubscriptionPlan implements ValueObject {
         ENTERPRISE
     }
 
+    // The predefined plans are immutable, so every event and aggregate can share one instance
+    private static final SubscriptionPlan FREE = new SubscriptionPlan(PlanType.FREE, 3, false, false);
+    private static final SubscriptionPlan BASIC = new SubscriptionPlan(PlanType.BASIC, 10, false, false);
+    private static final SubscriptionPlan PROFESSIONAL = new SubscriptionPlan(PlanType.PROFESSIONAL, 50, true, false);
+    private static final SubscriptionPlan ENTERPRISE = new SubscriptionPlan(PlanType.ENTERPRISE, 1000, true, true);
+
     private final PlanType planType;
     private final int maxUsers;
     private final boolean hasAdvancedFeatures;
@@ -32,19 +38,19 @@ public final class SubscriptionPlan implements ValueObject {
     }
 
     public static SubscriptionPlan freePlan() {
-        return new SubscriptionPlan(PlanType.FREE, 3, false, false);
+        return FREE;
     }
 
     public static SubscriptionPlan basicPlan() {
-        return new SubscriptionPlan(PlanType.BASIC, 10, false, false);
+        return BASIC;
     }
 
     public static SubscriptionPlan professionalPlan() {
-        return new SubscriptionPlan(PlanType.PROFESSIONAL, 50, true, false);
+        return PROFESSIONAL;
     }
 
     public static SubscriptionPlan enterprisePlan() {
-        return new SubscriptionPlan(PlanType.ENTERPRISE, 1000, true, true);
+        return ENTERPRISE;
     }
 
     public static SubscriptionPlan custom(PlanType planType, int maxUsers, boolean hasAdvancedFeatures, boolean hasPrioritySuppport) {
@@ -1,26 +1,31 @@
 package com.riftco.userprofiledataserv;
 
-import com.riftco.userprofiledataserv.adapter.persistence.users.eventstore.EventSerializer;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
-import com.riftco.userprofiledataserv.adapter.persistence.users.eventstore.EventStore;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
 
-@SpringBootTest(properties = {
-	"spring.data.mongodb.host=localhost",
-	"spring.data.mongodb.port=27017",
-	"spring.data.mongodb.database=test"
-})
+/**
+ * Starts the whole application against a single node Mongo replica set, which the event
+ * store needs for its transactions. Events go to the in-memory test binder, not to Kafka.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+@Import(TestChannelBinderConfiguration.class)
 class ApplicationTests {
-	
-	@MockBean
-	private EventStore eventStore;
-	
-	@MockBean
-	private com.riftco.userprofiledataserv.application.port.out.SendUserEventToBroker sendUserEventToBroker;
-	
-	@MockBean
-	private EventSerializer eventSerializer;
+
+	@Container
+	static final MongoDBContainer MONGO = new MongoDBContainer("mongo:6.0");
+
+	@DynamicPropertySource
+	static void mongo(DynamicPropertyRegistry registry) {
+		registry.add("spring.data.mongodb.uri", () -> MONGO.getReplicaSetUrl("test"));
+	}
 
 	@Test
 	void contextLoads() {
@@ -0,0 +1,166 @@
+package com.riftco.userprofiledataserv.adapter.broker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.ErrorMessage;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BrokerSenderTest {
+
+    private final List<String> log = new ArrayList<>();
+
+    private StreamBridge streamBridge;
+    private BrokerSender sender;
+
+    /**
+     * The binder logs each payload and, the way the Kafka binder does, reports it back as
+     * acknowledged, or as failed on the error channel when the payload is {@code lost}.
+     * It refuses {@code refused} outright and never answers for {@code unanswered}.
+     */
+    @BeforeEach
+    void setUp() {
+        this.streamBridge = mock(StreamBridge.class);
+        when(this.streamBridge.send(any(), any())).thenAnswer(invocation -> {
+            final Message<?> message = invocation.getArgument(1);
+            final String payload = new String((byte[]) message.getPayload(), StandardCharsets.UTF_8);
+            this.log.add(payload);
+            switch (payload) {
+                case "refused" -> {
+                    return false;
+                }
+                case "lost" -> this.sender.failed(new ErrorMessage(new MessagingException(message, "Not acknowledged")));
+                case "unanswered" -> {
+                }
+                default -> this.sender.acknowledged(message);
+            }
+            return true;
+        });
+    }
+
+    @Test
+    void handsTheMessagesOfASaveToTheBinderInOneTransaction() {
+        final BrokerSender sender = this.sender(new BrokerPublisherProperties(), true);
+
+        final CompletableFuture<Void> receipt = sender.sendAll(SourceBinding.USERS_OUT, messages("1", "2", "3"));
+
+        assertThat(receipt.isCompletedExceptionally()).isFalse();
+        assertThat(this.log).containsExactly("begin", "1", "2", "3", "commit");
+    }
+
+    @Test
+    void abortsTheWholeSaveWhenTheBinderRefusesOneOfItsMessages() {
+        final BrokerSender sender = this.sender(new BrokerPublisherProperties(), true);
+
+        final CompletableFuture<Void> receipt = sender.sendAll(SourceBinding.USERS_OUT, messages("1", "refused", "3"));
+
+        assertThat(receipt.isCompletedExceptionally()).isTrue();
+        assertThat(this.log).containsExactly("begin", "1", "refused", "rollback");
+    }
+
+    @Test
+    void keepsTheSavesApartAndInOrderWhenBatched() throws InterruptedException {
+        final BrokerPublisherProperties properties = new BrokerPublisherProperties();
+        properties.setMode(BrokerPublisherProperties.Mode.BATCHED);
+        final BrokerSender sender = this.sender(properties, true);
+
+        final CompletableFuture<Void> first = sender.sendAll(SourceBinding.USERS_OUT, messages("1", "2"));
+        final CompletableFuture<Void> second = sender.sendAll(SourceBinding.USERS_OUT, messages("3"));
+        CompletableFuture.allOf(first, second).join();
+        sender.stop();
+
+        assertThat(this.log).containsExactly("begin", "1", "2", "commit", "begin", "3", "commit");
+    }
+
+    @Test
+    void sendsWithoutATransactionWhenTheBinderIsNotTransactional() {
+        final BrokerSender sender = this.sender(new BrokerPublisherProperties(), false);
+
+        sender.sendAll(SourceBinding.USERS_OUT, messages("1", "2")).join();
+
+        assertThat(this.log).containsExactly("1", "2");
+    }
+
+    @Test
+    void failsTheSaveWhenTheBrokerDidNotTakeOneOfItsMessages() {
+        final BrokerSender sender = this.sender(new BrokerPublisherProperties(), false);
+
+        final CompletableFuture<Void> receipt = sender.sendAll(SourceBinding.USERS_OUT, messages("1", "lost", "3"));
+
+        assertThatThrownBy(receipt::join).hasCauseInstanceOf(MessagingException.class);
+    }
+
+    @Test
+    void failsTheSaveWhenAMessageIsNotAcknowledgedInTime() {
+        final BrokerPublisherProperties properties = new BrokerPublisherProperties();
+        properties.setAcknowledgementTimeout(Duration.ofMillis(50));
+        final BrokerSender sender = this.sender(properties, false);
+
+        final CompletableFuture<Void> receipt = sender.sendAll(SourceBinding.USERS_OUT, messages("1", "unanswered"));
+
+        assertThatThrownBy(receipt::join).hasCauseInstanceOf(TimeoutException.class);
+    }
+
+    private BrokerSender sender(BrokerPublisherProperties properties, boolean transactional) {
+        final StaticListableBeanFactory beans = transactional
+                ? new StaticListableBeanFactory(Map.of("brokerTransactions", new TransactionTemplate(new LoggedTransactions())))
+                : new StaticListableBeanFactory();
+        this.sender = new BrokerSender(this.streamBridge, properties, new SimpleMeterRegistry(),
+                beans.getBeanProvider(TransactionTemplate.class));
+        return this.sender;
+    }
+
+    private static List<Message<byte[]>> messages(String... payloads) {
+        final List<Message<byte[]>> messages = new ArrayList<>(payloads.length);
+        for (String payload : payloads) {
+            messages.add(MessageBuilder.withPayload(payload.getBytes(StandardCharsets.UTF_8)).build());
+        }
+        return messages;
+    }
+
+    /**
+     * Stands in for the Kafka transaction manager, logging where each transaction begins
+     * and ends among the messages handed to the binder.
+     */
+    private class LoggedTransactions implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            BrokerSenderTest.this.log.add("begin");
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            BrokerSenderTest.this.log.add("commit");
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            BrokerSenderTest.this.log.add("rollback");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.riftco.userprofiledataserv.domain.UserState;
+import com.riftco.userprofiledataserv.domain.event.DomainEvent;
+import com.riftco.userprofiledataserv.domain.event.UserCreatedEvent;
+import com.riftco.userprofiledataserv.domain.event.UserProfileBiographyChangedEvent;
+import com.riftco.userprofiledataserv.domain.event.UserProfileCreatedEvent;
+import com.riftco.userprofiledataserv.domain.vo.AvatarUrl;
+import com.riftco.userprofiledataserv.domain.vo.Biography;
+import com.riftco.userprofiledataserv.domain.vo.DisplayName;
+import com.riftco.userprofiledataserv.domain.vo.Email;
+import com.riftco.userprofiledataserv.domain.vo.PhoneNumber;
+import com.riftco.userprofiledataserv.domain.vo.TenantId;
+import com.riftco.userprofiledataserv.domain.vo.UserId;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the event body formats on a mix of user and profile events: encoded bytes per
+ * event (printed once per trial) and encode / decode time per event.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.riftco.userprofiledataserv.adapter.persistence.eventstore.EventBodyFormatBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventBodyFormatBenchmark {
+
+    @Param({"JSON", "BSON", "SMILE"})
+    public BodyFormat format;
+
+    private EventSerializer serializer;
+    private List<DomainEvent> events;
+    private List<EventDescriptor> encoded;
+
+    @Setup
+    public void setUp() {
+        this.serializer = new EventSerializer();
+        final UUID uuid = UUID.randomUUID();
+        final UserId userId = UserId.of(uuid.toString());
+        final TenantId tenantId = TenantId.generate();
+        final Instant now = Instant.now();
+        this.events = List.of(
+                new UserCreatedEvent(uuid, userId, tenantId, UserState.ACTIVATED, "Ada Lovelace",
+                        Email.of("ada.lovelace@example.com"), PhoneNumber.of("+44 20 7946 0958"), now),
+                new UserProfileCreatedEvent(uuid, userId, tenantId, DisplayName.of("Ada Lovelace"),
+                        AvatarUrl.of("https://cdn.example.com/avatars/ada-lovelace.png"), now),
+                new UserProfileBiographyChangedEvent(uuid, Biography.of(
+                        "Mathematician and writer, chiefly known for her work on the proposed "
+                                + "mechanical general-purpose computer, the Analytical Engine."), now));
+        this.encoded = this.events.stream().map(event -> this.serializer.serialize(event, this.format)).toList();
+        final long bytes = this.encoded.stream().mapToLong(EventBodyFormatBenchmark::encodedBytes).sum();
+        System.out.printf("%n%s: %d bytes per event%n", this.format, bytes / this.encoded.size());
+    }
+
+    @Benchmark
+    public void encode(Blackhole blackhole) {
+        for (DomainEvent event : this.events) {
+            blackhole.consume(this.serializer.serialize(event, this.format));
+        }
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) {
+        for (EventDescriptor descriptor : this.encoded) {
+            blackhole.consume(this.serializer.deserialize(descriptor));
+        }
+    }
+
+    private static long encodedBytes(EventDescriptor descriptor) {
+        return switch (descriptor.getFormat()) {
+            case JSON -> descriptor.getBody().getBytes(StandardCharsets.UTF_8).length;
+            case BSON -> new RawBsonDocument(descriptor.getPayload(), new DocumentCodec()).getByteBuffer().remaining();
+            case SMILE -> descriptor.getData().length;
+        };
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EventBodyFormatBenchmark.class.getSimpleName()).build()).run();
+    }
+}
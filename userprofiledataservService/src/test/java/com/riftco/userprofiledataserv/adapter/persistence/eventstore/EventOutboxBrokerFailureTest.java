@@ -0,0 +1,106 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.riftco.userprofiledataserv.adapter.broker.BrokerPublisherProperties;
+import com.riftco.userprofiledataserv.adapter.broker.BrokerSender;
+import com.riftco.userprofiledataserv.adapter.broker.SourceBinding;
+import com.riftco.userprofiledataserv.adapter.broker.UserEventToKafkaAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandlingException;
+import org.springframework.messaging.support.ErrorMessage;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The outbox behind the real broker adapter, with a binder that takes every send and then
+ * reports it on the error channel, the way the Kafka binder does when the broker does not
+ * acknowledge a record.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(EventStoreMongo.class)
+class EventOutboxBrokerFailureTest {
+
+    private static MongoTemplate mongo;
+
+    private final UUID aggregateUUID = UUID.randomUUID();
+
+    private StreamBridge streamBridge;
+    private BrokerSender brokerSender;
+    private MongoEventStorage storage;
+    private DeadLetterStore deadLetters;
+    private EventOutbox outbox;
+
+    @BeforeAll
+    static void connect() {
+        mongo = EventStoreMongo.template("event_outbox_broker_test");
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongo.getDb().drop();
+        this.streamBridge = mock(StreamBridge.class);
+        when(this.streamBridge.send(any(), any())).thenAnswer(invocation -> {
+            this.brokerSender.failed(new ErrorMessage(new MessageHandlingException(
+                    (Message<?>) invocation.getArgument(1), "Record was not acknowledged by the broker")));
+            return true;
+        });
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        this.brokerSender = new BrokerSender(this.streamBridge, new BrokerPublisherProperties(),
+                meterRegistry, new StaticListableBeanFactory().getBeanProvider(TransactionTemplate.class));
+        final EventStoreProperties.Retry retry = new EventStoreProperties.Retry();
+        retry.setMaxAttempts(3);
+        retry.setInitialBackoff(Duration.ofMillis(1));
+        retry.setMaxBackoff(Duration.ofMillis(5));
+
+        this.storage = new MongoEventStorage(mongo, "users_event_log");
+        this.deadLetters = new MongoRepositoryFactory(mongo).getRepository(DeadLetterStore.class);
+        this.outbox = new EventOutbox("user", this.storage, new UserEventToKafkaAdapter(this.brokerSender)::sendAllAsync,
+                new EventSerializer(), new EventCompressor("user", 0, meterRegistry), this.deadLetters,
+                new OutboxLeases(mongo, new EventStoreProperties()), retry, meterRegistry);
+    }
+
+    @Test
+    void retriesAnEventTheBrokerDidNotTakeAndParksItAfterTheLastAttempt() throws InterruptedException {
+        this.storage.append(this.aggregateUUID, 0, List.of(
+                new EventDescriptor("{\"type\":\"user.deactivated\"}", Instant.now(), "user.deactivated")));
+
+        this.outbox.relay(100);
+
+        final List<EventDescriptor> pending = this.storage.loadPending(100, Instant.now().plusSeconds(3600));
+        assertThat(pending).extracting(EventDescriptor::getPublishAttempts).containsExactly(1);
+        assertThat(this.deadLetters.findAll()).isEmpty();
+
+        Thread.sleep(20);
+        this.outbox.relay(100);
+        Thread.sleep(20);
+        this.outbox.relay(100);
+
+        verify(this.streamBridge, times(3)).send(eq(SourceBinding.USERS_OUT), any());
+        assertThat(this.deadLetters.findAll())
+                .extracting(DeadLetter::getAggregateUUID, DeadLetter::getSequence, DeadLetter::getAttempts)
+                .containsExactly(tuple(this.aggregateUUID, 1L, 3));
+        assertThat(this.storage.loadPending(100, Instant.now().plusSeconds(3600))).isEmpty();
+    }
+}
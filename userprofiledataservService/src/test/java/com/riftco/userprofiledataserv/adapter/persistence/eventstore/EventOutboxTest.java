@@ -0,0 +1,229 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.riftco.userprofiledataserv.application.port.out.OutgoingEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(EventStoreMongo.class)
+class EventOutboxTest {
+
+    private static MongoTemplate mongo;
+
+    private final UUID first = UUID.randomUUID();
+    private final UUID second = UUID.randomUUID();
+
+    private MongoEventStorage storage;
+    private DeadLetterStore deadLetters;
+    private RecordingPublisher publisher;
+    private EventOutbox outbox;
+
+    @BeforeAll
+    static void connect() {
+        mongo = EventStoreMongo.template("event_outbox_test");
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongo.getDb().drop();
+        this.storage = new MongoEventStorage(mongo, "events");
+        this.deadLetters = new MongoRepositoryFactory(mongo).getRepository(DeadLetterStore.class);
+        this.publisher = new RecordingPublisher();
+        this.outbox = this.outbox(new OutboxLeases(mongo, new EventStoreProperties()), 3);
+    }
+
+    @Test
+    void publishesTheEventsOfASaveTogetherAndInStreamOrder() throws InterruptedException {
+        this.save(this.first, 0, 2);
+        this.save(this.second, 0, 3);
+        this.save(this.first, 2, 1);
+
+        assertThat(this.outbox.relay(100)).isFalse();
+
+        // One save per aggregate and round, the aggregates of a round sent together
+        assertThat(this.publisher.calls).containsExactly(
+                this.first + ":1-2", this.second + ":1-3", this.first + ":3-3");
+        assertThat(this.storage.loadPending(100, Instant.now())).isEmpty();
+    }
+
+    @Test
+    void sendsNothingMoreOfAnAggregateOnceOneOfItsSavesFailed() throws InterruptedException {
+        this.save(this.first, 0, 2);
+        this.save(this.second, 0, 1);
+        this.save(this.first, 2, 1);
+        this.publisher.failing.add(this.first);
+
+        this.outbox.relay(100);
+
+        assertThat(this.publisher.calls).containsExactly(this.first + ":1-2", this.second + ":1-1");
+        final List<EventDescriptor> pending = this.storage.loadPending(100, later());
+        assertThat(pending).extracting(EventDescriptor::getSequence).containsExactly(1L, 2L, 3L);
+        assertThat(pending.get(0).getPublishAttempts()).isEqualTo(1);
+        assertThat(pending.get(0).getNextAttemptAt()).isNotNull();
+    }
+
+    @Test
+    void leavesASaveCutOffByAFullBatchForTheNextBatch() throws InterruptedException {
+        this.save(this.first, 0, 1);
+        this.save(this.second, 0, 3);
+
+        assertThat(this.outbox.relay(2)).isTrue();
+        assertThat(this.publisher.calls).containsExactly(this.first + ":1-1");
+
+        assertThat(this.outbox.relay(3)).isTrue();
+        assertThat(this.publisher.calls).containsExactly(this.first + ":1-1", this.second + ":1-3");
+    }
+
+    @Test
+    void publishesTheSavesOfAnAggregateInStreamOrderEvenIfAppendTimesDisagree() throws InterruptedException {
+        this.save(this.first, 0, 2);
+        this.save(this.first, 2, 1);
+        this.save(this.second, 0, 1);
+        // The later save was appended on an instance whose clock was behind
+        mongo.updateFirst(
+                Query.query(where("aggregateUUID").is(this.first).and("sequence").is(3L)),
+                Update.update("pendingSince", Instant.now().minusSeconds(60)),
+                "events");
+
+        assertThat(this.outbox.relay(1)).isTrue();
+
+        assertThat(this.publisher.calls).containsExactly(this.first + ":1-2", this.first + ":3-3");
+        assertThat(this.storage.loadPending(100, Instant.now()))
+                .extracting(EventDescriptor::getAggregateUUID)
+                .containsExactly(this.second);
+    }
+
+    @Test
+    void parksASaveAfterTheLastAttemptAndLetsItsAggregateGoOn() throws InterruptedException {
+        this.outbox = this.outbox(new OutboxLeases(mongo, new EventStoreProperties()), 2);
+        this.save(this.first, 0, 2);
+        this.save(this.first, 2, 1);
+        this.publisher.failing.add(this.first);
+
+        this.outbox.relay(100);
+        Thread.sleep(20);
+        this.outbox.relay(100);
+
+        assertThat(this.deadLetters.findAll())
+                .extracting(DeadLetter::getSequence)
+                .containsExactlyInAnyOrder(1L, 2L);
+        assertThat(this.storage.loadPending(100, later()))
+                .extracting(EventDescriptor::getSequence)
+                .containsExactly(3L);
+
+        this.publisher.failing.clear();
+        this.outbox.relay(100);
+        assertThat(this.publisher.calls).endsWith(this.first + ":3-3");
+
+        for (DeadLetter deadLetter : this.deadLetters.findAll()) {
+            assertThat(this.outbox.redeliver(deadLetter)).isEmpty();
+        }
+    }
+
+    @Test
+    void onlyTheInstanceHoldingTheLeaseRelays() throws InterruptedException {
+        final EventOutbox other = this.outbox(new OutboxLeases(mongo, new EventStoreProperties()), 3);
+        this.save(this.first, 0, 1);
+
+        assertThat(this.outbox.leased()).isTrue();
+        other.relay(100);
+
+        assertThat(this.publisher.calls).isEmpty();
+        this.outbox.relay(100);
+        assertThat(this.publisher.calls).containsExactly(this.first + ":1-1");
+    }
+
+    @Test
+    void publishesTheStoredJsonWithoutDecodingTheBody() {
+        final byte[] json = "{\"type\":\"user.deactivated\"}".getBytes(StandardCharsets.UTF_8);
+        // A payload that does not decode to any event: only the kept JSON can be published
+        this.storage.append(this.first, 0, List.of(new EventDescriptor(
+                new Document("unreadable", true), Instant.now(), "user.deactivated").withOutgoing(json)));
+
+        this.outbox.relay(100);
+
+        final OutgoingEvent published = this.publisher.events.get(0);
+        assertThat(published.getPayload()).isEqualTo(json);
+        assertThat(published.getAggregateUUID()).isEqualTo(this.first);
+        assertThat(published.getType()).isEqualTo("user.deactivated");
+        assertThat(published.getSequence()).isEqualTo(1L);
+        assertThat(published.getSchemaVersion()).isEqualTo(1);
+    }
+
+    private EventOutbox outbox(OutboxLeases leases, int maxAttempts) {
+        final EventStoreProperties.Retry retry = new EventStoreProperties.Retry();
+        retry.setMaxAttempts(maxAttempts);
+        retry.setInitialBackoff(Duration.ofMillis(1));
+        retry.setMaxBackoff(Duration.ofMillis(5));
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new EventOutbox("user", this.storage, this.publisher, new EventSerializer(),
+                new EventCompressor("user", 0, meterRegistry), this.deadLetters, leases, retry, meterRegistry);
+    }
+
+    /**
+     * Appends a save, a little apart from the previous one so that the outbox order of the
+     * saves does not depend on their aggregate ids.
+     */
+    private void save(UUID aggregateUUID, long version, int count) throws InterruptedException {
+        this.storage.append(aggregateUUID, version, events(count));
+        Thread.sleep(5);
+    }
+
+    /**
+     * A time past every backoff, so that no pending event is left out.
+     */
+    private static Instant later() {
+        return Instant.now().plus(Duration.ofHours(1));
+    }
+
+    private static List<EventDescriptor> events(int count) {
+        final List<EventDescriptor> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(new EventDescriptor("{\"type\":\"user.deactivated\"}", Instant.now(), "user.deactivated"));
+        }
+        return events;
+    }
+
+    /**
+     * Records every save handed over as {@code aggregate:first-last}, and fails the saves of
+     * the aggregates in {@link #failing}.
+     */
+    private static class RecordingPublisher implements EventPublisher {
+        private final List<String> calls = new ArrayList<>();
+        private final List<OutgoingEvent> events = new ArrayList<>();
+        private final Set<UUID> failing = new HashSet<>();
+
+        @Override
+        public CompletableFuture<Void> publish(List<OutgoingEvent> save) {
+            final UUID aggregateUUID = save.get(0).getAggregateUUID();
+            this.calls.add(aggregateUUID + ":" + save.get(0).getSequence() + "-" + save.get(save.size() - 1).getSequence());
+            if (this.failing.contains(aggregateUUID)) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Broker unavailable"));
+            }
+            this.events.addAll(save);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.riftco.userprofiledataserv.domain.User;
+import com.riftco.userprofiledataserv.domain.vo.Email;
+import com.riftco.userprofiledataserv.domain.vo.PhoneNumber;
+import com.riftco.userprofiledataserv.domain.vo.TenantId;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(EventStoreMongo.class)
+class EventSourcedRepositoryTest {
+
+    private static MongoTemplate mongo;
+
+    private static final AggregateType<User> USER = AggregateType.<User>builder()
+            .name("user")
+            .aggregateClass(User.class)
+            .rebuild(User::from)
+            .replay(User::replay)
+            .uncommittedEvents(User::getUncommittedEvents)
+            .markCommitted(User::markEventsAsCommitted)
+            .copy(User::copy)
+            .weigher(user -> AggregateWeigher.BASE_WEIGHT)
+            .tenant(User::getTenantId)
+            .build();
+
+    private MongoEventStorage storage;
+    private SnapshotStore snapshots;
+    private DeadLetterStore deadLetters;
+
+    @BeforeAll
+    static void connect() {
+        mongo = EventStoreMongo.template("event_sourced_repository_test");
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongo.getDb().drop();
+        this.storage = new MongoEventStorage(mongo, "users_event_log");
+        final MongoRepositoryFactory repositories = new MongoRepositoryFactory(mongo);
+        this.snapshots = repositories.getRepository(SnapshotStore.class);
+        this.deadLetters = repositories.getRepository(DeadLetterStore.class);
+    }
+
+    @Test
+    void snapshotsALongReplayAndLaterReplaysOnlyTheEventsAfterIt() {
+        final EventStoreProperties properties = properties(3, false);
+        final EventSourcedRepository<User> repository = this.repository(properties, new SimpleMeterRegistry());
+        final UUID userId = this.userRenamed(repository, 3);
+
+        assertThat(repository.getByUUID(userId).getVersion()).isEqualTo(4);
+        assertThat(this.snapshots.findLatest("user", userId).map(AggregateSnapshot::getVersion)).contains(4L);
+        repository.save(repository.getByUUID(userId).changeName("Grace Hopper"));
+
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final User loaded = this.repository(properties, meterRegistry).getByUUID(userId);
+
+        assertThat(loaded.getName()).isEqualTo("Grace Hopper");
+        assertThat(loaded.getVersion()).isEqualTo(5);
+        assertThat(replayed(meterRegistry).totalAmount()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("eventstore.snapshot.loads").tag("result", "hit").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void rebuildsFromTheEventsWhenTheSnapshotCannotBeRead() {
+        final EventSourcedRepository<User> repository = this.repository(properties(0, false), new SimpleMeterRegistry());
+        final UUID userId = this.userRenamed(repository, 2);
+        this.snapshots.save(new AggregateSnapshot("user", userId, 3, "{not a user"));
+
+        final User loaded = repository.getByUUID(userId);
+
+        assertThat(loaded.getName()).isEqualTo("Name 2");
+        assertThat(loaded.getVersion()).isEqualTo(3);
+    }
+
+    @Test
+    void readsAPastStateWithoutTheNewerSnapshot() throws InterruptedException {
+        final EventSourcedRepository<User> repository = this.repository(properties(3, false), new SimpleMeterRegistry());
+        final UUID userId = this.userRenamed(repository, 1);
+        Thread.sleep(5);
+        final Instant renamedOnce = Instant.now();
+        Thread.sleep(5);
+        repository.save(repository.getByUUID(userId).changeName("Name 2"));
+        repository.save(repository.getByUUID(userId).changeName("Name 3"));
+        assertThat(this.snapshots.findLatest("user", userId)).isPresent();
+
+        final User past = repository.getByUUIDat(userId, renamedOnce);
+
+        assertThat(past.getName()).isEqualTo("Name 1");
+        assertThat(past.getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void catchesUpACachedAggregateWithTheEventsAppendedElsewhere() {
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final EventSourcedRepository<User> cached = this.repository(properties(0, true), meterRegistry);
+        final EventSourcedRepository<User> otherNode = this.repository(properties(0, true), new SimpleMeterRegistry());
+        final UUID userId = this.userRenamed(cached, 1);
+
+        otherNode.save(otherNode.getByUUID(userId).changeName("Grace Hopper"));
+        final User loaded = cached.getByUUID(userId);
+
+        assertThat(loaded.getName()).isEqualTo("Grace Hopper");
+        assertThat(loaded.getVersion()).isEqualTo(3);
+        // Only the rename saved elsewhere was read on top of the cached state
+        assertThat(replayed(meterRegistry).count()).isEqualTo(1L);
+        assertThat(replayed(meterRegistry).totalAmount()).isEqualTo(1.0);
+    }
+
+    @Test
+    void keepsTheCachedStateApartFromTheLoadedInstances() {
+        final EventSourcedRepository<User> repository = this.repository(properties(0, true), new SimpleMeterRegistry());
+        final UUID userId = this.userRenamed(repository, 1);
+
+        repository.getByUUID(userId).changeName("Not saved");
+
+        final User loaded = repository.getByUUID(userId);
+        assertThat(loaded.getName()).isEqualTo("Name 1");
+        assertThat(loaded.getUncommittedEvents()).isEmpty();
+    }
+
+    @Test
+    void replaysAStreamLongerThanASegmentAsOneLoad() {
+        final EventStoreProperties properties = properties(5, false);
+        properties.setReadSegmentSize(2);
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final EventSourcedRepository<User> repository = this.repository(properties, meterRegistry);
+        final UUID userId = this.userRenamed(repository, 4);
+
+        final User loaded = repository.getByUUID(userId);
+
+        assertThat(loaded.getName()).isEqualTo("Name 4");
+        assertThat(loaded.getVersion()).isEqualTo(5);
+        // The three segments count as one load towards the snapshot policy
+        assertThat(replayed(meterRegistry).count()).isEqualTo(1L);
+        assertThat(replayed(meterRegistry).totalAmount()).isEqualTo(5.0);
+        assertThat(this.snapshots.findLatest("user", userId).map(AggregateSnapshot::getVersion)).contains(5L);
+    }
+
+    /**
+     * Saves a new user and renames it {@code renames} times, one save each, to
+     * {@code Name 1}, {@code Name 2} and so on.
+     */
+    private UUID userRenamed(EventSourcedRepository<User> repository, int renames) {
+        User user = repository.save(User.NONE.create(
+                TenantId.generate(), "Ada Lovelace", Email.of("ada@example.com"), PhoneNumber.of("+44 20 7946 0000")));
+        for (int i = 1; i <= renames; i++) {
+            user = repository.save(user.changeName("Name " + i));
+        }
+        return user.getUUID();
+    }
+
+    private EventSourcedRepository<User> repository(EventStoreProperties properties, MeterRegistry meterRegistry) {
+        return new EventSourcedRepositories(
+                new EventSerializer(),
+                this.snapshots,
+                new SnapshotSerializer(),
+                properties,
+                new AggregateCaches(properties, meterRegistry),
+                this.deadLetters,
+                new OutboxLeases(mongo, properties),
+                meterRegistry)
+                .create(USER, this.storage, save -> CompletableFuture.completedFuture(null));
+    }
+
+    private static EventStoreProperties properties(int snapshotEvery, boolean cached) {
+        final EventStoreProperties properties = new EventStoreProperties();
+        final EventStoreProperties.Aggregate user = new EventStoreProperties.Aggregate();
+        user.getSnapshot().setEveryEvents(snapshotEvery);
+        user.getCache().setEnabled(cached);
+        properties.getAggregates().put("user", user);
+        return properties;
+    }
+
+    private static DistributionSummary replayed(MeterRegistry meterRegistry) {
+        return meterRegistry.get("eventstore.replay.events").summary();
+    }
+}
@@ -0,0 +1,47 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClients;
+import org.bson.UuidRepresentation;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+
+/**
+ * One single node replica set shared by the event store tests. The first test class that
+ * extends with it starts it, and it is stopped once all tests ran. The classes also carry
+ * {@code @Testcontainers(disabledWithoutDocker = true)}, so that without Docker they are
+ * skipped before anything starts. UUIDs are stored the way the application stores them.
+ */
+final class EventStoreMongo implements BeforeAllCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(EventStoreMongo.class);
+
+    private static volatile MongoDBContainer container;
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(
+                MongoDBContainer.class, type -> start(), ExtensionContext.Store.CloseableResource.class);
+    }
+
+    private static ExtensionContext.Store.CloseableResource start() {
+        final MongoDBContainer started = new MongoDBContainer("mongo:6.0");
+        started.start();
+        container = started;
+        return started::stop;
+    }
+
+    /**
+     * A template on the given database of the shared replica set, for use from
+     * {@code @BeforeAll} on.
+     */
+    static MongoTemplate template(String database) {
+        return new MongoTemplate(MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(container.getReplicaSetUrl()))
+                .uuidRepresentation(UuidRepresentation.JAVA_LEGACY)
+                .build()), database);
+    }
+}
@@ -0,0 +1,130 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.riftco.userprofiledataserv.application.port.out.OutgoingEvent;
+import com.riftco.userprofiledataserv.domain.event.UserNameChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventUpcastersTest {
+
+    private static final Instant OCCURRED_AT = Instant.parse("2023-05-01T10:00:00Z");
+
+    private final UUID userId = UUID.randomUUID();
+
+    private Rename fullNameToDisplayName;
+    private Rename displayNameToName;
+    private SimpleMeterRegistry meterRegistry;
+    private EventSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        this.fullNameToDisplayName = new Rename(1, "fullName", "displayName");
+        this.displayNameToName = new Rename(2, "displayName", "name");
+        this.meterRegistry = new SimpleMeterRegistry();
+        final EventUpcasters upcasters = new EventUpcasters(
+                List.of(this.displayNameToName, this.fullNameToDisplayName), this.meterRegistry);
+        this.serializer = new EventSerializer(this.meterRegistry, upcasters, ValueObjectInterner.none());
+    }
+
+    @Test
+    void readsABodyStoredBeforeVersionsThroughTheWholeChain() {
+        // Written before the type had upcasters: no schema version, the field under its first name
+        final EventDescriptor stored = new EventDescriptor(
+                "{\"type\":\"user.name.changed\",\"uuid\":\"" + this.userId + "\",\"fullName\":\"Ada Lovelace\","
+                        + "\"occurredAt\":\"2023-05-01T10:00:00Z\"}",
+                OCCURRED_AT, UserNameChangedEvent.TYPE);
+
+        final UserNameChangedEvent event = (UserNameChangedEvent) this.serializer.deserialize(stored);
+
+        assertThat(event.getUuid()).isEqualTo(this.userId);
+        assertThat(event.getName()).isEqualTo("Ada Lovelace");
+        assertThat(event.getOccurredAt()).isEqualTo(OCCURRED_AT);
+        assertThat(this.fullNameToDisplayName.calls).isEqualTo(1);
+        assertThat(this.displayNameToName.calls).isEqualTo(1);
+        assertThat(this.upcast("1")).isEqualTo(1.0);
+        assertThat(this.upcast("2")).isEqualTo(1.0);
+    }
+
+    @Test
+    void publishesABodyStoredBeforeVersionsInTheCurrentVersion() throws Exception {
+        final EventDescriptor stored = new EventDescriptor(
+                "{\"type\":\"user.name.changed\",\"uuid\":\"" + this.userId + "\",\"fullName\":\"Ada Lovelace\"}",
+                OCCURRED_AT, UserNameChangedEvent.TYPE);
+
+        final OutgoingEvent outgoing = this.serializer.toOutgoing(stored);
+
+        final JsonNode published = new ObjectMapper().readTree(outgoing.getPayload());
+        assertThat(outgoing.getSchemaVersion()).isEqualTo(3);
+        assertThat(published.path("name").asText()).isEqualTo("Ada Lovelace");
+        assertThat(published.has("fullName")).isFalse();
+    }
+
+    @Test
+    void readsEventsInTheCurrentVersionWithoutTheChain() {
+        final UserNameChangedEvent written = new UserNameChangedEvent(this.userId, "Ada Lovelace", OCCURRED_AT);
+
+        for (BodyFormat format : BodyFormat.values()) {
+            final EventDescriptor stored = this.serializer.serialize(written, format);
+
+            assertThat(stored.getSchemaVersion()).isEqualTo(3);
+            assertThat(this.serializer.deserialize(stored)).isEqualTo(written);
+        }
+        assertThat(this.fullNameToDisplayName.calls).isEqualTo(0);
+        assertThat(this.displayNameToName.calls).isEqualTo(0);
+        assertThat(this.upcast("1")).isEqualTo(0.0);
+    }
+
+    private double upcast(String fromVersion) {
+        return this.meterRegistry.get("eventstore.upcast.events")
+                .tag("type", UserNameChangedEvent.TYPE)
+                .tag("from", fromVersion)
+                .counter()
+                .count();
+    }
+
+    /**
+     * Renames one field of {@code user.name.changed} bodies, counting its calls.
+     */
+    private static class Rename implements EventUpcaster {
+        private final int fromVersion;
+        private final String from;
+        private final String to;
+        private int calls;
+
+        Rename(int fromVersion, String from, String to) {
+            this.fromVersion = fromVersion;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public String eventType() {
+            return UserNameChangedEvent.TYPE;
+        }
+
+        @Override
+        public int fromVersion() {
+            return this.fromVersion;
+        }
+
+        @Override
+        public ObjectNode upcast(ObjectNode body) {
+            this.calls++;
+            final JsonNode value = body.remove(this.from);
+            if (value != null) {
+                body.set(this.to, value);
+            }
+            return body;
+        }
+    }
+}
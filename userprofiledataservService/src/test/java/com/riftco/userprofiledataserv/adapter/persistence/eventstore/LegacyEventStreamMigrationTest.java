@@ -0,0 +1,109 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(EventStoreMongo.class)
+class LegacyEventStreamMigrationTest {
+
+    private static MongoTemplate mongo;
+
+    private static final Instant T0 = Instant.parse("2023-05-01T10:00:00Z");
+
+    private LegacyEventStreamMigration migration;
+    private MongoEventStorage users;
+
+    @BeforeAll
+    static void connect() {
+        mongo = EventStoreMongo.template("legacy_migration_test");
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongo.getDb().drop();
+        this.users = new MongoEventStorage(mongo, "users_event_log");
+        this.migration = new LegacyEventStreamMigration(mongo, new EventStoreProperties());
+    }
+
+    @Test
+    void numbersLegacyEventsByTheTimeTheyOccurred() {
+        final UUID aggregateId = UUID.randomUUID();
+        legacyStream(aggregateId,
+                event("renamed", T0.plusSeconds(10)),
+                event("created", T0),
+                event("verified", T0.plusSeconds(10)));
+
+        this.migration.migrate();
+
+        assertThat(this.users.load(aggregateId, 0))
+                .extracting(EventDescriptor::getSequence, EventDescriptor::getType)
+                .containsExactly(
+                        tuple(1L, "created"),
+                        tuple(2L, "renamed"),
+                        tuple(3L, "verified"));
+    }
+
+    @Test
+    void migratesEveryStreamOnlyOnce() {
+        final UUID aggregateId = UUID.randomUUID();
+        legacyStream(aggregateId, event("created", T0));
+
+        this.migration.migrate();
+        this.users.append(aggregateId, 1, List.of(new EventDescriptor("{}", T0.plusSeconds(60), "renamed")));
+        this.migration.migrate();
+
+        assertThat(this.users.load(aggregateId, 0))
+                .extracting(EventDescriptor::getType)
+                .containsExactly("created", "renamed");
+        assertThat(mongo.getCollection(LegacyEventStreamMigration.MARKERS).countDocuments()).isEqualTo(1);
+    }
+
+    @Test
+    void completesAStreamThatWasOnlyPartlyMigrated() {
+        final UUID aggregateId = UUID.randomUUID();
+        legacyStream(aggregateId, event("created", T0), event("renamed", T0.plusSeconds(10)));
+        // A previous start wrote the first event and stopped before the marker
+        this.users.append(aggregateId, 0, List.of(new EventDescriptor("{\"type\":\"created\"}", T0, "created")));
+
+        this.migration.migrate();
+
+        assertThat(this.users.load(aggregateId, 0))
+                .extracting(EventDescriptor::getType)
+                .containsExactly("created", "renamed");
+    }
+
+    @Test
+    void leavesTheStreamsAloneWhenSwitchedOff() {
+        final UUID aggregateId = UUID.randomUUID();
+        legacyStream(aggregateId, event("created", T0));
+        final EventStoreProperties properties = new EventStoreProperties();
+        properties.setMigrateLegacyStreams(false);
+
+        new LegacyEventStreamMigration(mongo, properties).migrate();
+
+        assertThat(this.users.exists(aggregateId)).isFalse();
+    }
+
+    private static void legacyStream(UUID aggregateId, Document... events) {
+        mongo.insert(new Document("aggregateUUID", aggregateId).append("events", List.of(events)), "users_event");
+    }
+
+    private static Document event(String type, Instant occurredAt) {
+        return new Document("body", "{\"type\":\"" + type + "\"}")
+                .append("occurredAt", occurredAt)
+                .append("type", type);
+    }
+}
@@ -0,0 +1,182 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(EventStoreMongo.class)
+class MongoEventStorageTest {
+
+    private static MongoTemplate mongo;
+
+    private MongoEventStorage storage;
+
+    @BeforeAll
+    static void connect() {
+        mongo = EventStoreMongo.template("event_storage_test");
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongo.dropCollection("events");
+        this.storage = new MongoEventStorage(mongo, "events");
+    }
+
+    @Test
+    void appendsAfterTheExpectedVersion() {
+        final UUID aggregateId = UUID.randomUUID();
+
+        this.storage.append(aggregateId, 0, events("created", 2));
+        this.storage.append(aggregateId, 2, events("renamed", 1));
+
+        assertThat(this.storage.load(aggregateId, 0))
+                .extracting(EventDescriptor::getSequence)
+                .containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void rejectsAnAppendAtAStaleVersionAndKeepsTheStream() {
+        final UUID aggregateId = UUID.randomUUID();
+        this.storage.append(aggregateId, 0, events("created", 2));
+
+        assertThatThrownBy(() -> this.storage.append(aggregateId, 1, events("renamed", 3)))
+                .isInstanceOf(ConcurrencyConflictException.class);
+
+        assertThat(this.storage.load(aggregateId, 0))
+                .extracting(EventDescriptor::getType)
+                .containsExactly("created", "created");
+    }
+
+    @Test
+    void onlyOneOfTwoWritersAtTheSameVersionStoresItsSave() throws Exception {
+        final ExecutorService writers = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 20; round++) {
+                final UUID aggregateId = UUID.randomUUID();
+                this.storage.append(aggregateId, 0, events("created", 1));
+                final CyclicBarrier start = new CyclicBarrier(2);
+
+                final CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(
+                        () -> this.race(start, aggregateId, "first"), writers);
+                final CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(
+                        () -> this.race(start, aggregateId, "second"), writers);
+
+                assertThat(List.of(first.get(), second.get())).containsExactlyInAnyOrder(true, false);
+                final String winner = first.get() ? "first" : "second";
+                final List<EventDescriptor> stream = this.storage.load(aggregateId, 0);
+                assertThat(stream).extracting(EventDescriptor::getSequence).containsExactly(1L, 2L, 3L, 4L);
+                assertThat(stream.subList(1, stream.size()))
+                        .extracting(EventDescriptor::getType)
+                        .containsOnly(winner);
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+
+    @Test
+    void readsAStreamInSegmentsFromTheGivenSequence() {
+        final UUID aggregateId = UUID.randomUUID();
+        this.storage.append(aggregateId, 0, events("created", 1));
+        this.storage.append(aggregateId, 1, events("renamed", 4));
+
+        final List<List<Long>> segments = new ArrayList<>();
+        this.storage.loadSegments(aggregateId, 0, 2, segment -> segments.add(sequences(segment)));
+        assertThat(segments).containsExactly(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+
+        segments.clear();
+        this.storage.loadSegments(aggregateId, 3, 2, segment -> segments.add(sequences(segment)));
+        assertThat(segments).containsExactly(List.of(4L, 5L));
+    }
+
+    @Test
+    void appendedEventsArePendingUntilPublished() {
+        final UUID aggregateId = UUID.randomUUID();
+        this.storage.append(aggregateId, 0, events("created", 3));
+
+        assertThat(this.storage.loadPending(10, Instant.now()))
+                .extracting(EventDescriptor::getSaveEnd)
+                .containsExactly(3L, 3L, 3L);
+
+        this.storage.markPublished(aggregateId, 0, 3);
+
+        assertThat(this.storage.loadPending(10, Instant.now())).isEmpty();
+    }
+
+    @Test
+    void loadsTheWaitingEventsOfAnAggregateInStreamOrderWhateverTheirAppendTimes() {
+        final UUID aggregateId = UUID.randomUUID();
+        this.storage.append(aggregateId, 0, events("created", 2));
+        this.storage.append(aggregateId, 2, events("renamed", 1));
+        // Appended on an instance whose clock was behind
+        backdate(aggregateId, 3);
+
+        assertThat(this.storage.loadPending(1, Instant.now()))
+                .extracting(EventDescriptor::getSequence)
+                .containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void marksOnlyTheGivenRangeAsPublished() {
+        final UUID aggregateId = UUID.randomUUID();
+        this.storage.append(aggregateId, 0, events("created", 1));
+        this.storage.append(aggregateId, 1, events("renamed", 1));
+        this.storage.append(aggregateId, 2, events("renamed", 1));
+
+        this.storage.markPublished(aggregateId, 1, 2);
+
+        assertThat(this.storage.loadPending(10, Instant.now()))
+                .extracting(EventDescriptor::getSequence)
+                .containsExactly(1L, 3L);
+    }
+
+    private static void backdate(UUID aggregateId, long sequence) {
+        mongo.updateFirst(
+                Query.query(where("aggregateUUID").is(aggregateId).and("sequence").is(sequence)),
+                Update.update("pendingSince", Instant.now().minusSeconds(60)),
+                "events");
+    }
+
+    private boolean race(CyclicBarrier start, UUID aggregateId, String type) {
+        try {
+            start.await();
+            this.storage.append(aggregateId, 1, events(type, 3));
+            return true;
+        } catch (ConcurrencyConflictException e) {
+            return false;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<Long> sequences(List<EventDescriptor> events) {
+        return events.stream().map(EventDescriptor::getSequence).toList();
+    }
+
+    private static List<EventDescriptor> events(String type, int count) {
+        final List<EventDescriptor> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(new EventDescriptor("{\"type\":\"" + type + "\"}", Instant.now(), type));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,41 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBackoffTest {
+
+    private final RetryBackoff backoff = new RetryBackoff(Duration.ofMillis(100), Duration.ofSeconds(1));
+
+    @Test
+    void delaysUpToTheInitialBackoffDoublingWithEachAttempt() {
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(this.backoff.delay(1).toMillis()).isBetween(0L, 100L);
+            assertThat(this.backoff.delay(2).toMillis()).isBetween(0L, 200L);
+            assertThat(this.backoff.delay(3).toMillis()).isBetween(0L, 400L);
+        }
+    }
+
+    @Test
+    void neverDelaysLongerThanTheMaximum() {
+        for (int attempt = 1; attempt < 100; attempt++) {
+            assertThat(this.backoff.delay(attempt).toMillis()).isLessThanOrEqualTo(1_000L);
+        }
+    }
+
+    @Test
+    void spreadsTheDelaysOfAttemptsThatFailedTogether() {
+        long shortest = Long.MAX_VALUE;
+        long longest = 0;
+        for (int i = 0; i < 1_000; i++) {
+            final long delay = this.backoff.delay(5).toMillis();
+            shortest = Math.min(shortest, delay);
+            longest = Math.max(longest, delay);
+        }
+        assertThat(shortest).isLessThan(250L);
+        assertThat(longest).isGreaterThan(750L);
+    }
+}
@@ -0,0 +1,173 @@
+package com.riftco.userprofiledataserv.adapter.persistence.eventstore;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.riftco.userprofiledataserv.domain.common.ValueObject;
+import com.riftco.userprofiledataserv.domain.vo.Department;
+import com.riftco.userprofiledataserv.domain.vo.DisplayName;
+import com.riftco.userprofiledataserv.domain.vo.Email;
+import com.riftco.userprofiledataserv.domain.vo.GitHubUrl;
+import com.riftco.userprofiledataserv.domain.vo.JobTitle;
+import com.riftco.userprofiledataserv.domain.vo.Location;
+import com.riftco.userprofiledataserv.domain.vo.SubscriptionPlan;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cached value object codecs with the previous ones, which looked up
+ * {@code getValue} / {@code of} reflectively and went through a {@link JsonNode} on every
+ * value. Each operation writes or reads one record of seven value objects, about what a
+ * profile event carries. {@code interned} also takes the job title, department and location
+ * from the {@link ValueObjectInterner} pools; compare with {@code -prof gc} for the allocation
+ * it saves per record.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.riftco.userprofiledataserv.adapter.persistence.eventstore.ValueObjectCodecBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValueObjectCodecBenchmark {
+
+    private static final List<Class<? extends ValueObject>> VALUE_OBJECTS = List.of(
+            DisplayName.class, Email.class, JobTitle.class, Department.class, Location.class,
+            GitHubUrl.class, SubscriptionPlan.class);
+
+    @Param({"reflective", "cached", "interned"})
+    public String codecs;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private Profile profile;
+    private String json;
+
+    @Setup
+    public void setUp() throws IOException {
+        final SimpleModule module = new SimpleModule();
+        final ValueObjectInterner interner = "interned".equals(this.codecs)
+                ? new ValueObjectInterner(new EventStoreProperties(), new SimpleMeterRegistry())
+                : ValueObjectInterner.none();
+        for (Class<? extends ValueObject> valueObjectClass : VALUE_OBJECTS) {
+            register(module, valueObjectClass, interner, !"reflective".equals(this.codecs));
+        }
+        final ObjectMapper mapper = new ObjectMapper().registerModule(module);
+        this.writer = mapper.writerFor(Profile.class);
+        this.reader = mapper.readerFor(Profile.class);
+
+        this.profile = new Profile();
+        this.profile.displayName = DisplayName.of("Ada Lovelace");
+        this.profile.email = Email.of("ada.lovelace@example.com");
+        this.profile.jobTitle = JobTitle.of("Analyst");
+        this.profile.department = Department.of("Analytical Engine");
+        this.profile.location = Location.of("London");
+        this.profile.gitHub = GitHubUrl.of("https://github.com/ada-lovelace");
+        this.profile.plan = SubscriptionPlan.professionalPlan();
+        this.json = this.writer.writeValueAsString(this.profile);
+    }
+
+    @Benchmark
+    public String encode() throws IOException {
+        return this.writer.writeValueAsString(this.profile);
+    }
+
+    @Benchmark
+    public Profile decode() throws IOException {
+        return this.reader.readValue(this.json);
+    }
+
+    private static <T extends ValueObject> void register(SimpleModule module, Class<T> valueObjectClass,
+                                                         ValueObjectInterner interner, boolean cached) {
+        if (cached) {
+            module.addSerializer(valueObjectClass, new ValueObjectSerializer<>(valueObjectClass));
+            module.addDeserializer(valueObjectClass, new ValueObjectDeserializer<>(valueObjectClass, interner));
+        } else {
+            module.addSerializer(valueObjectClass, new ReflectiveSerializer<>());
+            module.addDeserializer(valueObjectClass, new ReflectiveDeserializer<>(valueObjectClass));
+        }
+    }
+
+    public static class Profile {
+        public DisplayName displayName;
+        public Email email;
+        public JobTitle jobTitle;
+        public Department department;
+        public Location location;
+        public GitHubUrl gitHub;
+        public SubscriptionPlan plan;
+    }
+
+    /**
+     * The serializer as it was: one {@code getMethod} per value, falling back to
+     * {@code toString} through an exception.
+     */
+    static class ReflectiveSerializer<T extends ValueObject> extends JsonSerializer<T> {
+
+        @Override
+        public void serialize(T value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            try {
+                Method valueGetter = value.getClass().getMethod("getValue");
+                gen.writeString(valueGetter.invoke(value).toString());
+            } catch (Exception e) {
+                gen.writeString(value.toString());
+            }
+        }
+    }
+
+    /**
+     * The deserializer as it was: a tree per value and one {@code getMethod} per value.
+     */
+    static class ReflectiveDeserializer<T extends ValueObject> extends JsonDeserializer<T> {
+
+        private final Class<T> valueObjectClass;
+
+        ReflectiveDeserializer(Class<T> valueObjectClass) {
+            this.valueObjectClass = valueObjectClass;
+        }
+
+        @Override
+        public T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonNode node = p.getCodec().readTree(p);
+            try {
+                String stringValue = node.isTextual() ? node.asText() : node.get("value").asText();
+                Method ofMethod = this.valueObjectClass.getMethod("of", String.class);
+                return this.valueObjectClass.cast(ofMethod.invoke(null, stringValue));
+            } catch (Exception e) {
+                throw new IOException("Error deserializing value object: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ValueObjectCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+}